@@ -0,0 +1,81 @@
+#!/usr/bin/env bash
+#
+# Startup benchmark: time from process launch to the first successful GET /api/v1/products.
+#
+#   ./mvnw -Pfast-startup -DskipTests package      # jar, AOT classes and CDS archive
+#   ./mvnw -Pnative -DskipTests native:compile     # optional, Linux + GraalVM only
+#   bench/startup-benchmark.sh [runs]
+#
+# Modes: jvm (plain fat jar), aot (extracted jar + Spring AOT), cds (AOT + AppCDS archive),
+# native (GraalVM binary, skipped when target/demo-secure is missing).
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${PORT:-18080}"
+URL="http://localhost:${PORT}/api/v1/products"
+CREDENTIALS="user1:password"
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+TARGET="${ROOT}/target"
+JAR="$(ls "${TARGET}"/demo-secure-*.jar | grep -v original | head -n 1)"
+EXTRACTED="${TARGET}/application/$(basename "${JAR}")"
+NATIVE="${TARGET}/demo-secure"
+
+now_ms() {
+  date +%s%3N
+}
+
+# Launches the given command, polls the endpoint and prints the elapsed milliseconds.
+measure() {
+  local start pid elapsed
+  start="$(now_ms)"
+  "$@" --server.port="${PORT}" > /dev/null 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null -u "${CREDENTIALS}" "${URL}"; do
+    if ! kill -0 "${pid}" 2> /dev/null; then
+      echo "failed"
+      return
+    fi
+    sleep 0.01
+  done
+  elapsed=$(( $(now_ms) - start ))
+  kill "${pid}"
+  wait "${pid}" 2> /dev/null || true
+  echo "${elapsed}"
+}
+
+run_mode() {
+  local mode="$1"
+  shift
+  local total=0 result
+  printf "%-8s" "${mode}"
+  for _ in $(seq "${RUNS}"); do
+    result="$(measure "$@")"
+    printf " %8s" "${result}"
+    if [[ "${result}" == "failed" ]]; then
+      echo
+      return
+    fi
+    total=$(( total + result ))
+  done
+  printf "   avg %6d ms\n" $(( total / RUNS ))
+}
+
+echo "Time to first successful GET /api/v1/products (ms), ${RUNS} runs per mode"
+run_mode jvm java -jar "${JAR}"
+
+if [[ -f "${EXTRACTED}" ]]; then
+  run_mode aot java -Dspring.aot.enabled=true -jar "${EXTRACTED}"
+  if [[ -f "${TARGET}/application/application.jsa" ]]; then
+    run_mode cds java -XX:SharedArchiveFile="${TARGET}/application/application.jsa" \
+      -Dspring.aot.enabled=true -jar "${EXTRACTED}"
+  fi
+else
+  echo "aot/cds skipped: build with -Pfast-startup first"
+fi
+
+if [[ -x "${NATIVE}" ]]; then
+  run_mode native "${NATIVE}"
+else
+  echo "native skipped: build with -Pnative native:compile first"
+fi
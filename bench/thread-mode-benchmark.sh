@@ -0,0 +1,55 @@
+#!/usr/bin/env bash
+#
+# Compares platform-thread and virtual-thread request execution (spring.threads.virtual.enabled).
+#
+#   ./mvnw -DskipTests package
+#   bench/thread-mode-benchmark.sh [concurrency] [seconds] [path]
+#
+# The default path is the in-memory product list. Paths through /api/v1/fetch-external call a
+# real third-party service: they are refused unless ALLOW_EXTERNAL_UPSTREAM=yes is set, and even
+# then the circuit breaker and the upstream's own limits dominate the result rather than the
+# thread model. For I/O-bound runs prefer a stub upstream you control (on a public address, since
+# loopback and site-local targets are blocked, and added to app.external.allowed-hosts).
+# Rate limit budgets are lifted and load shedding is disabled for the run so that they do not mask the
+# difference between the two thread models.
+set -euo pipefail
+
+CONCURRENCY="${1:-400}"
+SECONDS_PER_RUN="${2:-20}"
+REQUEST_PATH="${3:-/api/v1/products}"
+PORT="${PORT:-18080}"
+CREDENTIALS="user1:password"
+
+if [[ "${REQUEST_PATH}" == /api/v1/fetch-external* && "${ALLOW_EXTERNAL_UPSTREAM:-}" != "yes" ]]; then
+  echo "Refusing to load-test an external upstream through ${REQUEST_PATH}." >&2
+  echo "Set ALLOW_EXTERNAL_UPSTREAM=yes if the target is yours (or a local stub)." >&2
+  exit 1
+fi
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+JAR="$(ls "${ROOT}"/target/demo-secure-*.jar | grep -v original | head -n 1)"
+
+run_mode() {
+  local mode="$1" virtual="$2" pid
+  java -jar "${JAR}" --server.port="${PORT}" \
+    --spring.threads.virtual.enabled="${virtual}" \
+    --app.concurrency-limit.enabled=false \
+    --app.rate-limit.buckets.read.capacity=2000000000 \
+    --app.rate-limit.buckets.external.capacity=2000000000 > /dev/null 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null -u "${CREDENTIALS}" "http://localhost:${PORT}/api/v1/products"; do
+    sleep 0.2
+  done
+  # Warm up, then measure
+  java "${ROOT}/bench/LoadGenerator.java" "http://localhost:${PORT}${REQUEST_PATH}" \
+    "${CONCURRENCY}" 5 "${CREDENTIALS}" > /dev/null
+  printf "%-9s " "${mode}"
+  java "${ROOT}/bench/LoadGenerator.java" "http://localhost:${PORT}${REQUEST_PATH}" \
+    "${CONCURRENCY}" "${SECONDS_PER_RUN}" "${CREDENTIALS}"
+  kill "${pid}"
+  wait "${pid}" 2> /dev/null || true
+}
+
+echo "${CONCURRENCY} concurrent clients, ${SECONDS_PER_RUN}s per mode, GET ${REQUEST_PATH}"
+run_mode platform false
+run_mode virtual true
@@ -1,5 +1,12 @@
 package com.example.secure.config;
 
+import com.example.secure.global.PhaseMarkFilter;
+import com.example.secure.global.RateLimitFilter;
+import com.example.secure.global.RateLimitProperties;
+import com.example.secure.global.RateLimitingService;
+import com.example.secure.global.RequestPhase;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -13,24 +20,35 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, RateLimitingService rateLimitingService,
+                                                   RateLimitProperties rateLimitProperties) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.GET, "/api/v1/products").authenticated()
                         .requestMatchers(HttpMethod.POST, "/api/v1/products").hasRole("USER")
+                        .requestMatchers(HttpMethod.POST, "/api/v1/products/import").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/v1/products/**").hasRole("USER")
                         .requestMatchers(HttpMethod.DELETE, "/api/v1/products/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/v1/fetch-external").authenticated()
+                        // BFLA (API5): management endpoints expose internals and mutate state, admins only
+                        .requestMatchers(EndpointRequest.toAnyEndpoint().excluding("health")).hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
-                .httpBasic(h -> {});
+                .httpBasic(h -> {})
+                // Profiling: authentication (BCrypt) ends here for sampled requests
+                .addFilterAfter(new PhaseMarkFilter(RequestPhase.AUTHENTICATION), BasicAuthenticationFilter.class)
+                // API4: Rate limit right after authentication, before dispatch and @PreAuthorize
+                .addFilterAfter(new RateLimitFilter(rateLimitingService, rateLimitProperties),
+                        BasicAuthenticationFilter.class);
 
         return http.build();
     }
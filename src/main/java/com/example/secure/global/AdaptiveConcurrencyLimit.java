@@ -0,0 +1,138 @@
+package com.example.secure.global;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * AIMD concurrency limit driven by request latency.
+ * Latency is judged per window of samples, not per request: once a window is full its median is
+ * compared with the long-term baseline, and the limit either grows by one (latency close to the
+ * baseline and the limit actually used) or shrinks multiplicatively once (queueing). Single slow
+ * requests from a mixed workload therefore do not move the limit; server errors and requests over
+ * the latency ceiling still back off immediately. The admission check is lock-free, samples are
+ * collected under a short lock on the window.
+ */
+class AdaptiveConcurrencyLimit {
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double tolerance;
+    private final long maxLatencyNanos;
+
+    // Current limit stored as double bits so multiplicative decrease keeps its fraction
+    private final AtomicLong limitBits;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong shed = new AtomicLong();
+
+    // Samples of the current window and the highest concurrency seen in it, guarded by window
+    private final long[] window = new long[WINDOW_SAMPLES];
+    private int windowSize;
+    private int windowPeakInFlight;
+    // Long-term average (EMA) of the window medians, 0 until the first window closes
+    private volatile double baseline;
+
+    // Number of successful samples per decision window
+    static final int WINDOW_SAMPLES = 50;
+    // Weight of a single window median in the latency baseline
+    private static final double BASELINE_SMOOTHING = 0.1;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit,
+                             double backoffRatio, double tolerance, long maxLatencyNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.tolerance = tolerance;
+        this.maxLatencyNanos = maxLatencyNanos;
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(
+                Math.max(minLimit, Math.min(maxLimit, initialLimit))));
+    }
+
+    /**
+     * Reserves an in-flight slot.
+     * @return true if the request may proceed, false if it must be shed.
+     */
+    boolean tryAcquire() {
+        int current = inFlight.incrementAndGet();
+        if (current > getLimit()) {
+            inFlight.decrementAndGet();
+            shed.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Releases a slot acquired by {@link #tryAcquire()} and feeds the latency sample back.
+     * @param latencyNanos How long the request took.
+     * @param failed Whether the request ended in a server error or an exception.
+     */
+    void release(long latencyNanos, boolean failed) {
+        int concurrent = inFlight.getAndDecrement();
+        if (failed || latencyNanos > maxLatencyNanos) {
+            // Errors and timeouts are a direct overload signal, they back off right away and are kept
+            // out of the window (failures are often fast and would drag the baseline down)
+            updateLimit(limit -> Math.max(minLimit, limit * backoffRatio));
+            return;
+        }
+        synchronized (window) {
+            window[windowSize++] = latencyNanos;
+            windowPeakInFlight = Math.max(windowPeakInFlight, concurrent);
+            if (windowSize == WINDOW_SAMPLES) {
+                closeWindow();
+            }
+        }
+    }
+
+    private void closeWindow() {
+        Arrays.sort(window);
+        double median = window[WINDOW_SAMPLES / 2];
+        int peak = windowPeakInFlight;
+        windowSize = 0;
+        windowPeakInFlight = 0;
+
+        double previous = baseline;
+        baseline = previous == 0 ? median : previous + (median - previous) * BASELINE_SMOOTHING;
+        if (previous > 0 && median > previous * tolerance) {
+            // Typical latency climbed: queueing, one multiplicative decrease per window
+            updateLimit(limit -> Math.max(minLimit, limit * backoffRatio));
+        } else if (peak * 2 >= getLimit()) {
+            // Additive increase, only when the current limit is actually being used
+            updateLimit(limit -> Math.min(maxLimit, limit + 1));
+        }
+    }
+
+    private void updateLimit(DoubleUnaryOperator update) {
+        long prev;
+        long next;
+        do {
+            prev = limitBits.get();
+            next = Double.doubleToRawLongBits(update.applyAsDouble(Double.longBitsToDouble(prev)));
+        } while (!limitBits.compareAndSet(prev, next));
+    }
+
+    /**
+     * Releases a slot without a latency sample, for requests whose duration says nothing about
+     * server load (long-running streaming responses).
+     */
+    void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    long getShedCount() {
+        return shed.get();
+    }
+
+    double getBaselineLatencyMillis() {
+        return baseline / 1_000_000.0;
+    }
+}
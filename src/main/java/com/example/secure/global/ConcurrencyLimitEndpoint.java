@@ -0,0 +1,32 @@
+package com.example.secure.global;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes the adaptive concurrency limit at /actuator/concurrency.
+ */
+@Component
+@Endpoint(id = "concurrency")
+public class ConcurrencyLimitEndpoint {
+
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    public ConcurrencyLimitEndpoint(ConcurrencyLimitFilter concurrencyLimitFilter) {
+        this.concurrencyLimitFilter = concurrencyLimitFilter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> concurrency() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("limit", concurrencyLimitFilter.getLimit());
+        state.put("inFlight", concurrencyLimitFilter.getInFlight());
+        state.put("shed", concurrencyLimitFilter.getShedCount());
+        state.put("baselineLatencyMillis", concurrencyLimitFilter.getBaselineLatencyMillis());
+        return state;
+    }
+}
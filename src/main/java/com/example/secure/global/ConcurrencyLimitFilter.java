@@ -0,0 +1,92 @@
+package com.example.secure.global;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Global load shedding (API4): caps the number of in-flight requests with an adaptive limit.
+ * Runs before the security chain so that excess load is rejected before BCrypt is paid for.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 10)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final AdaptiveConcurrencyLimit limit;
+
+    public ConcurrencyLimitFilter(
+            @Value("${app.concurrency-limit.enabled:true}") boolean enabled,
+            @Value("${app.concurrency-limit.initial-limit:20}") int initialLimit,
+            @Value("${app.concurrency-limit.min-limit:4}") int minLimit,
+            @Value("${app.concurrency-limit.max-limit:200}") int maxLimit,
+            @Value("${app.concurrency-limit.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${app.concurrency-limit.latency-tolerance:2.0}") double tolerance,
+            @Value("${app.concurrency-limit.max-latency:5s}") Duration maxLatency) {
+        this.enabled = enabled;
+        this.limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit,
+                backoffRatio, tolerance, maxLatency.toNanos());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Keep the management endpoints reachable while the API is shedding load
+        return !enabled || request.getRequestURI().startsWith(request.getContextPath() + "/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!limit.tryAcquire()) {
+            // Shed excess load instead of letting it queue
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean released = false;
+        // An exception escaping the chain leaves the status at 200, it counts as a failure
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+            if (request.isAsyncStarted()) {
+                // Streaming responses (import/export) may run for many minutes: they give up their slot
+                // when the request thread returns, and their duration is not fed back as latency
+                limit.releaseWithoutSample();
+                released = true;
+            }
+        } finally {
+            if (!released) {
+                limit.release(System.nanoTime() - start, failed || response.getStatus() >= 500);
+            }
+        }
+    }
+
+    int getLimit() {
+        return limit.getLimit();
+    }
+
+    int getInFlight() {
+        return limit.getInFlight();
+    }
+
+    long getShedCount() {
+        return limit.getShedCount();
+    }
+
+    double getBaselineLatencyMillis() {
+        return limit.getBaselineLatencyMillis();
+    }
+}
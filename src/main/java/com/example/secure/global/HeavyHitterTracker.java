@@ -0,0 +1,137 @@
+package com.example.secure.global;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Approximate top-K request counter with fixed memory (API4 introspection).
+ * A Count-Min Sketch estimates the count of every key; only the K keys with the highest
+ * estimates are kept by name. Counting is lock-free; the admission lock is only taken when a
+ * key that is not yet tracked overtakes the smallest tracked estimate.
+ */
+class HeavyHitterTracker {
+    private static final int DEPTH = 4;
+
+    private final int width;
+    private final int mask;
+    private final int capacity;
+    private final AtomicLongArray counts;
+    private final Map<String, Long> candidates = new ConcurrentHashMap<>();
+    private final ReentrantLock admissionLock = new ReentrantLock();
+    // Smallest tracked estimate once all K slots are in use
+    private volatile long floor;
+
+    /**
+     * Creates a tracker.
+     * @param width Counters per sketch row, rounded up to a power of two.
+     * @param capacity Number of heavy hitters (K) kept by name.
+     */
+    HeavyHitterTracker(int width, int capacity) {
+        this.width = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.mask = this.width - 1;
+        this.capacity = capacity;
+        this.counts = new AtomicLongArray(DEPTH * this.width);
+    }
+
+    /**
+     * Counts one occurrence of the key.
+     * @return The estimated count of the key, never lower than the true count.
+     */
+    long add(String key) {
+        int h1 = key.hashCode();
+        int h2 = mix(h1) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            // Double hashing derives the row hashes from two base hashes
+            int index = row * width + ((h1 + row * h2) & mask);
+            estimate = Math.min(estimate, counts.incrementAndGet(index));
+        }
+
+        if (candidates.replace(key, estimate) == null
+                && (candidates.size() < capacity || estimate > floor)) {
+            admit(key, estimate);
+        }
+        return estimate;
+    }
+
+    private void admit(String key, long estimate) {
+        admissionLock.lock();
+        try {
+            if (candidates.containsKey(key) || candidates.size() < capacity) {
+                candidates.put(key, estimate);
+            } else {
+                Map.Entry<String, Long> smallest = smallest();
+                if (smallest == null || estimate <= smallest.getValue()) {
+                    return;
+                }
+                candidates.remove(smallest.getKey());
+                candidates.put(key, estimate);
+            }
+            if (candidates.size() >= capacity) {
+                Map.Entry<String, Long> smallest = smallest();
+                floor = smallest == null ? 0 : smallest.getValue();
+            }
+        } finally {
+            admissionLock.unlock();
+        }
+    }
+
+    private Map.Entry<String, Long> smallest() {
+        Map.Entry<String, Long> smallest = null;
+        for (Map.Entry<String, Long> entry : candidates.entrySet()) {
+            if (smallest == null || entry.getValue() < smallest.getValue()) {
+                smallest = entry;
+            }
+        }
+        return smallest;
+    }
+
+    /**
+     * Returns the heavy hitters, highest estimate first.
+     * @param limit Maximum number of entries to return.
+     */
+    Map<String, Long> top(int limit) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(candidates.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+        Map<String, Long> top = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : entries) {
+            if (top.size() == limit) {
+                break;
+            }
+            top.put(entry.getKey(), entry.getValue());
+        }
+        return top;
+    }
+
+    /**
+     * Starts a new counting window.
+     */
+    void reset() {
+        admissionLock.lock();
+        try {
+            for (int i = 0; i < counts.length(); i++) {
+                counts.set(i, 0);
+            }
+            candidates.clear();
+            floor = 0;
+        } finally {
+            admissionLock.unlock();
+        }
+    }
+
+    // Murmur3 finalizer, spreads String.hashCode into an independent second hash
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
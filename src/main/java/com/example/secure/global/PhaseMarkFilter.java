@@ -0,0 +1,28 @@
+package com.example.secure.global;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.springframework.web.filter.GenericFilterBean;
+
+import java.io.IOException;
+
+/**
+ * Marks the end of a phase at its position in the security chain, e.g. after authentication.
+ */
+public class PhaseMarkFilter extends GenericFilterBean {
+
+    private final RequestPhase phase;
+
+    public PhaseMarkFilter(RequestPhase phase) {
+        this.phase = phase;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        PhaseTimeline.mark(phase);
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.secure.global;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-phase latency distributions of sampled requests at /actuator/phases.
+ * The raw timers are also published as the http.server.phases metric.
+ */
+@Component
+@Endpoint(id = "phases")
+public class PhaseProfilingEndpoint {
+
+    private final PhaseProfilingFilter phaseProfilingFilter;
+
+    public PhaseProfilingEndpoint(PhaseProfilingFilter phaseProfilingFilter) {
+        this.phaseProfilingFilter = phaseProfilingFilter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> phases() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("sampleRate", phaseProfilingFilter.getSampleRate());
+        report.put("endpoints", phaseProfilingFilter.report());
+        return report;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.secure.global;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in per-phase latency profiling (app.profiling.enabled).
+ * Binds a {@link PhaseTimeline} to a sample of requests before the security chain runs, then
+ * records each phase in a Micrometer timer per endpoint and phase. The timers keep decaying
+ * HdrHistogram-based percentiles, so the memory used per endpoint is fixed.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 5)
+public class PhaseProfilingFilter extends OncePerRequestFilter {
+
+    static final String METRIC = "http.server.phases";
+    private static final String TOTAL = "total";
+    // Requests rejected before dispatch have no handler pattern
+    private static final String UNMATCHED = "unmatched";
+    private static final RequestPhase[] PHASES = RequestPhase.values();
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final MeterRegistry registry;
+    // Endpoint -> timers indexed by phase ordinal, the total last
+    private final Map<String, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public PhaseProfilingFilter(@Value("${app.profiling.enabled:false}") boolean enabled,
+                                @Value("${app.profiling.sample-rate:0.01}") double sampleRate,
+                                ObjectProvider<MeterRegistry> registry) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.registry = registry.getIfAvailable(SimpleMeterRegistry::new);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || request.getRequestURI().startsWith(request.getContextPath() + "/actuator/")
+                || ThreadLocalRandom.current().nextDouble() >= sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        PhaseTimeline timeline = new PhaseTimeline(System.nanoTime());
+        PhaseTimeline.bind(timeline);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            PhaseTimeline.unbind();
+            // Streaming responses finish on another thread, only the synchronous part is recorded
+            long total = timeline.finish(System.nanoTime());
+            record(endpoint(request), timeline, total);
+        }
+    }
+
+    private void record(String endpoint, PhaseTimeline timeline, long total) {
+        Timer[] endpointTimers = timers.computeIfAbsent(endpoint, this::register);
+        for (RequestPhase phase : PHASES) {
+            if (timeline.isMarked(phase)) {
+                endpointTimers[phase.ordinal()].record(timeline.nanos(phase), TimeUnit.NANOSECONDS);
+            }
+        }
+        endpointTimers[PHASES.length].record(total, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer[] register(String endpoint) {
+        Timer[] endpointTimers = new Timer[PHASES.length + 1];
+        for (RequestPhase phase : PHASES) {
+            endpointTimers[phase.ordinal()] = timer(endpoint, phase.tag);
+        }
+        endpointTimers[PHASES.length] = timer(endpoint, TOTAL);
+        return endpointTimers;
+    }
+
+    private Timer timer(String endpoint, String phase) {
+        return Timer.builder(METRIC)
+                .tag("endpoint", endpoint)
+                .tag("phase", phase)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .distributionStatisticExpiry(Duration.ofMinutes(5))
+                .register(registry);
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? request.getMethod() + " " + pattern : UNMATCHED;
+    }
+
+    double getSampleRate() {
+        return enabled ? sampleRate : 0;
+    }
+
+    /**
+     * Per endpoint and phase: sample count, mean, p50/p95/p99 and max in milliseconds.
+     */
+    Map<String, Map<String, Map<String, Object>>> report() {
+        Map<String, Map<String, Map<String, Object>>> report = new TreeMap<>();
+        timers.forEach((endpoint, endpointTimers) -> {
+            Map<String, Map<String, Object>> phases = new LinkedHashMap<>();
+            for (Timer timer : endpointTimers) {
+                HistogramSnapshot snapshot = timer.takeSnapshot();
+                if (snapshot.count() == 0) {
+                    continue;
+                }
+                Map<String, Object> stats = new LinkedHashMap<>();
+                stats.put("count", snapshot.count());
+                stats.put("meanMillis", snapshot.mean(TimeUnit.MILLISECONDS));
+                for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                    stats.put("p" + Math.round(percentile.percentile() * 100) + "Millis",
+                            percentile.value(TimeUnit.MILLISECONDS));
+                }
+                stats.put("maxMillis", snapshot.max(TimeUnit.MILLISECONDS));
+                phases.put(timer.getId().getTag("phase"), stats);
+            }
+            report.put(endpoint, phases);
+        });
+        return report;
+    }
+}
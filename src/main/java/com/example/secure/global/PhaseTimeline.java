@@ -0,0 +1,86 @@
+package com.example.secure.global;
+
+/**
+ * Per-request phase clock for sampled requests, bound to the request thread by
+ * {@link PhaseProfilingFilter}. The static marks are a ThreadLocal read and a null check when
+ * the request is not sampled, so instrumentation points can call them unconditionally.
+ */
+public final class PhaseTimeline {
+
+    private static final ThreadLocal<PhaseTimeline> CURRENT = new ThreadLocal<>();
+
+    private final long start;
+    private long last;
+    private final long[] nanos = new long[RequestPhase.values().length];
+    private int markedPhases; // Bit per phase ordinal
+    private boolean serviceCalled;
+    private boolean bodyWritten;
+
+    PhaseTimeline(long start) {
+        this.start = start;
+        this.last = start;
+    }
+
+    /**
+     * Ends the given phase for the current request, if it is sampled.
+     */
+    public static void mark(RequestPhase phase) {
+        PhaseTimeline timeline = CURRENT.get();
+        if (timeline != null) {
+            timeline.markAt(phase, System.nanoTime());
+        }
+    }
+
+    /**
+     * Marks a ProductService call: the first one ends authorization, later ones end controller work.
+     */
+    public static void enterService() {
+        PhaseTimeline timeline = CURRENT.get();
+        if (timeline != null) {
+            timeline.markAt(timeline.serviceCalled ? RequestPhase.CONTROLLER : RequestPhase.AUTHORIZATION,
+                    System.nanoTime());
+            timeline.serviceCalled = true;
+        }
+    }
+
+    /**
+     * Marks the start of the response body write; the rest of the request counts as serialization.
+     */
+    public static void startBody() {
+        PhaseTimeline timeline = CURRENT.get();
+        if (timeline != null) {
+            timeline.markAt(RequestPhase.CONTROLLER, System.nanoTime());
+            timeline.bodyWritten = true;
+        }
+    }
+
+    static void bind(PhaseTimeline timeline) {
+        CURRENT.set(timeline);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    void markAt(RequestPhase phase, long now) {
+        nanos[phase.ordinal()] += now - last;
+        markedPhases |= 1 << phase.ordinal();
+        last = now;
+    }
+
+    /**
+     * Attributes the time since the last mark and returns the total request time.
+     */
+    long finish(long now) {
+        markAt(bodyWritten ? RequestPhase.SERIALIZATION : RequestPhase.OTHER, now);
+        return now - start;
+    }
+
+    boolean isMarked(RequestPhase phase) {
+        return (markedPhases & (1 << phase.ordinal())) != 0;
+    }
+
+    long nanos(RequestPhase phase) {
+        return nanos[phase.ordinal()];
+    }
+}
@@ -1,15 +1,70 @@
 package com.example.secure.global;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
 
 class RateLimitBucket {
+    // Terminal window of a bucket removed from the service, consumers must look the bucket up again
+    static final Window EVICTED = new Window(Instant.MIN, 0);
+
     final int capacity;
-    Instant lastRefillTime;
-    int tokens;
+    final Duration refillPeriod;
+    // Tokens and refill time change together, so they are swapped as one immutable window (CAS, no locks)
+    final AtomicReference<Window> window;
 
-    RateLimitBucket(int capacity, int initialTokens) {
+    RateLimitBucket(int capacity, int initialTokens, Duration refillPeriod) {
         this.capacity = capacity;
-        this.tokens = initialTokens;
-        this.lastRefillTime = Instant.now();
+        this.refillPeriod = refillPeriod;
+        this.window = new AtomicReference<>(new Window(Instant.now(), initialTokens));
+    }
+
+    boolean tryConsume(int cost) {
+        while (true) {
+            Window current = window.get();
+            if (current == EVICTED) {
+                return false;
+            }
+
+            // --- Refill Logic (Token Bucket Algorithm) ---
+            Instant now = Instant.now();
+            Window refilled = isRefillDue(current, now)
+                    ? new Window(now, capacity) // If the refill period has passed, replenish the tokens
+                    : current;
+
+            // --- Consumption Logic (weighted) ---
+            if (refilled.tokens() < cost) {
+                if (refilled != current) {
+                    window.compareAndSet(current, refilled);
+                }
+                return false;
+            }
+            if (window.compareAndSet(current, new Window(refilled.lastRefillTime(), refilled.tokens() - cost))) {
+                return true;
+            }
+            // Lost the race against a concurrent request on the same bucket, retry
+        }
+    }
+
+    /**
+     * Retires the bucket if its next use would refill it to full capacity anyway: dropping it loses
+     * no state. A concurrent consumer wins the race, or sees {@link #EVICTED} and starts over.
+     * @return true if the bucket was retired.
+     */
+    boolean tryEvict(Instant now) {
+        Window current = window.get();
+        return current != EVICTED && isRefillDue(current, now) && window.compareAndSet(current, EVICTED);
+    }
+
+    boolean isEvicted() {
+        return window.get() == EVICTED;
+    }
+
+    private boolean isRefillDue(Window current, Instant now) {
+        long elapsedSeconds = Duration.between(current.lastRefillTime(), now).getSeconds();
+        return elapsedSeconds >= refillPeriod.getSeconds();
+    }
+
+    record Window(Instant lastRefillTime, int tokens) {
     }
 }
@@ -0,0 +1,46 @@
+package com.example.secure.global;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rate limit introspection (API4) at /actuator/ratelimits.
+ * Lists the heaviest users and endpoints, and the bucket state of a single user
+ * at /actuator/ratelimits/{userId}.
+ */
+@Component
+@Endpoint(id = "ratelimits")
+public class RateLimitEndpoint {
+
+    private static final int TOP = 10;
+
+    private final RateLimitingService rateLimitingService;
+
+    public RateLimitEndpoint(RateLimitingService rateLimitingService) {
+        this.rateLimitingService = rateLimitingService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> heavyHitters() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("topUsers", rateLimitingService.topUsers(TOP));
+        report.put("topEndpoints", rateLimitingService.topEndpoints(TOP));
+        return report;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> buckets(@Selector String userId) {
+        return rateLimitingService.bucketState(userId);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        rateLimitingService.resetStatistics();
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.secure.global;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Policy-driven rate limiting (API4) for every endpoint.
+ * Registered in the security chain right after authentication, so a rejected request never
+ * reaches dispatch, {@code @PreAuthorize} or the controller.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Heavy-hitter key of requests that match neither a policy nor a handler
+    private static final String UNMATCHED = "unmatched";
+
+    private final RateLimitingService rateLimitingService;
+    private final List<CompiledPolicy> policies;
+
+    public RateLimitFilter(RateLimitingService rateLimitingService, RateLimitProperties properties) {
+        this.rateLimitingService = rateLimitingService;
+        this.policies = compile(properties);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (policies.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        PathContainer path = RequestPath.parse(request.getRequestURI(), request.getContextPath())
+                .pathWithinApplication();
+        CompiledPolicy policy = findPolicy(request.getMethod(), path, auth);
+        String clientId = clientId(request, auth);
+
+        if (policy != null && !rateLimitingService.tryConsume(clientId,
+                policy.bucket, policy.capacity, policy.refillPeriod, policy.cost)) {
+            PhaseTimeline.mark(RequestPhase.RATE_LIMIT);
+            // Never dispatched, counted under the policy that rejected it
+            rateLimitingService.recordRequest(clientId, policy.name);
+            // Respond with 429 Too Many Requests if the limit is exceeded
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", String.valueOf(policy.refillPeriod.getSeconds()));
+            return;
+        }
+        PhaseTimeline.mark(RequestPhase.RATE_LIMIT);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Counted once dispatch has resolved the handler pattern, never per raw path (e.g. per id)
+            rateLimitingService.recordRequest(clientId, endpointKey(request, policy));
+        }
+    }
+
+    private static String endpointKey(HttpServletRequest request, CompiledPolicy policy) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            return request.getMethod() + " " + pattern;
+        }
+        // Rejected before dispatch (e.g. 401) or no handler at all (404)
+        return policy != null ? policy.name : UNMATCHED;
+    }
+
+    private CompiledPolicy findPolicy(String method, PathContainer path, Authentication auth) {
+        for (CompiledPolicy policy : policies) {
+            if (policy.matches(method, path, auth)) {
+                return policy;
+            }
+        }
+        return null;
+    }
+
+    private static String clientId(HttpServletRequest request, Authentication auth) {
+        if (isAuthenticated(auth)) {
+            return auth.getName();
+        }
+        // Unauthenticated callers share a budget per remote address
+        return "anonymous:" + request.getRemoteAddr();
+    }
+
+    private static boolean isAuthenticated(Authentication auth) {
+        return auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken);
+    }
+
+    private static List<CompiledPolicy> compile(RateLimitProperties properties) {
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        List<CompiledPolicy> compiled = new ArrayList<>();
+        for (RateLimitProperties.Policy policy : properties.getPolicies()) {
+            RateLimitProperties.Bucket bucket = properties.getBuckets().get(policy.getBucket());
+            if (bucket == null) {
+                throw new IllegalStateException("Rate limit policy '" + policy.getName()
+                        + "' refers to unknown bucket '" + policy.getBucket() + "'");
+            }
+            Set<String> methods = new HashSet<>();
+            policy.getMethods().forEach(m -> methods.add(m.trim().toUpperCase(Locale.ROOT)));
+            Set<String> roles = new HashSet<>();
+            policy.getRoles().forEach(r -> roles.add("ROLE_" + r.trim()));
+
+            String name = policy.getName() != null ? policy.getName() : policy.getPath();
+            compiled.add(new CompiledPolicy(name, parser.parse(policy.getPath()), methods, roles,
+                    policy.getBucket(), bucket.getCapacity(), bucket.getRefillPeriod(), policy.getCost()));
+        }
+        return List.copyOf(compiled);
+    }
+
+    private static final class CompiledPolicy {
+        final String name;
+        final PathPattern pattern;
+        final Set<String> methods;
+        final Set<String> roles;
+        final String bucket;
+        final int capacity;
+        final Duration refillPeriod;
+        final int cost;
+
+        CompiledPolicy(String name, PathPattern pattern, Set<String> methods, Set<String> roles,
+                       String bucket, int capacity, Duration refillPeriod, int cost) {
+            this.name = name;
+            this.pattern = pattern;
+            this.methods = methods;
+            this.roles = roles;
+            this.bucket = bucket;
+            this.capacity = capacity;
+            this.refillPeriod = refillPeriod;
+            this.cost = cost;
+        }
+
+        boolean matches(String method, PathContainer path, Authentication auth) {
+            if (!methods.isEmpty() && !methods.contains(method)) {
+                return false;
+            }
+            if (!pattern.matches(path)) {
+                return false;
+            }
+            if (roles.isEmpty()) {
+                return true;
+            }
+            if (!isAuthenticated(auth)) {
+                return false;
+            }
+            for (GrantedAuthority authority : auth.getAuthorities()) {
+                if (roles.contains(authority.getAuthority())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.secure.global;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rate limit policies (API4) bound from "app.rate-limit.*".
+ * Buckets define a budget (e.g. separate read and write budgets per user); policies map a
+ * path/method/role combination onto a bucket with a weighted cost. The first matching policy wins.
+ */
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+    private Map<String, Bucket> buckets = new LinkedHashMap<>();
+    private List<Policy> policies = new ArrayList<>();
+
+    public Map<String, Bucket> getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(Map<String, Bucket> buckets) {
+        this.buckets = buckets;
+    }
+
+    public List<Policy> getPolicies() {
+        return policies;
+    }
+
+    public void setPolicies(List<Policy> policies) {
+        this.policies = policies;
+    }
+
+    /**
+     * A token budget shared by every policy that points at it.
+     */
+    public static class Bucket {
+        private int capacity = 5;
+        private Duration refillPeriod = Duration.ofSeconds(60);
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public Duration getRefillPeriod() {
+            return refillPeriod;
+        }
+
+        public void setRefillPeriod(Duration refillPeriod) {
+            this.refillPeriod = refillPeriod;
+        }
+    }
+
+    /**
+     * Selects requests by path pattern, HTTP method and role, and charges them to a bucket.
+     */
+    public static class Policy {
+        private String name;
+        private String path;
+        // Empty means every method / every caller
+        private List<String> methods = new ArrayList<>();
+        private List<String> roles = new ArrayList<>();
+        private String bucket;
+        private int cost = 1;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+
+        public List<String> getRoles() {
+            return roles;
+        }
+
+        public void setRoles(List<String> roles) {
+            this.roles = roles;
+        }
+
+        public String getBucket() {
+            return bucket;
+        }
+
+        public void setBucket(String bucket) {
+            this.bucket = bucket;
+        }
+
+        public int getCost() {
+            return cost;
+        }
+
+        public void setCost(int cost) {
+            this.cost = cost;
+        }
+    }
+}
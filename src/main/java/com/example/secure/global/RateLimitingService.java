@@ -4,44 +4,132 @@ import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class RateLimitingService {
-    // Stores the rate limit bucket for each user ID
-    private final Map<String, RateLimitBucket> userBuckets = new ConcurrentHashMap<>();
+    // Stores the rate limit buckets (by bucket name) for each client ID
+    private final Map<String, Map<String, RateLimitBucket>> userBuckets = new ConcurrentHashMap<>();
+    // Idle buckets are swept at most once per interval, by whichever request comes first
+    private static final Duration EVICTION_INTERVAL = Duration.ofMinutes(1);
+    private final AtomicLong nextEviction = new AtomicLong(System.nanoTime() + EVICTION_INTERVAL.toNanos());
 
-    // Configuration for the rate limit (5 requests per 60 seconds)
-    private static final int MAX_REQUESTS = 5;
-    private static final Duration REFILL_DURATION = Duration.ofSeconds(60);
+    // Approximate top-K request counts with fixed memory, for introspection under abuse
+    private static final int SKETCH_WIDTH = 2048;
+    private static final int TOP_K = 20;
+    private final HeavyHitterTracker userCounts = new HeavyHitterTracker(SKETCH_WIDTH, TOP_K);
+    private final HeavyHitterTracker endpointCounts = new HeavyHitterTracker(SKETCH_WIDTH, TOP_K);
 
     /**
-     * Checks if the authenticated user has available tokens for a request.
-     * @param userId The ID of the user.
+     * Charges a request to one of the client's buckets.
+     * @param clientId The ID of the user (or anonymous client).
+     * @param bucketName The budget the request is charged to, e.g. "read" or "write".
+     * @param capacity Tokens available per refill period.
+     * @param refillPeriod How often the bucket is replenished.
+     * @param cost Number of tokens the request consumes.
      * @return true if the request is allowed, false otherwise (rate limit hit).
      */
-    public boolean allowRequest(String userId) {
-        // Get or create the bucket for the user
-        RateLimitBucket bucket = userBuckets.computeIfAbsent(userId,
-                k -> new RateLimitBucket(MAX_REQUESTS, MAX_REQUESTS));
+    public boolean tryConsume(String clientId, String bucketName, int capacity, Duration refillPeriod, int cost) {
+        evictIdleBucketsIfDue();
+        while (true) {
+            // Get or create the bucket for the client (plain reads first, computeIfAbsent locks a bin)
+            Map<String, RateLimitBucket> buckets = userBuckets.get(clientId);
+            if (buckets == null) {
+                buckets = userBuckets.computeIfAbsent(clientId, k -> new ConcurrentHashMap<>());
+            }
+            RateLimitBucket bucket = buckets.get(bucketName);
+            if (bucket == null) {
+                bucket = buckets.computeIfAbsent(bucketName,
+                        k -> new RateLimitBucket(capacity, capacity, refillPeriod));
+            }
 
-        // --- Refill Logic (Token Bucket Algorithm) ---
+            if (bucket.tryConsume(cost)) {
+                return true;
+            }
+            if (!bucket.isEvicted()) {
+                return false;
+            }
+            // Evicted under our feet: it was full, so a fresh bucket is equivalent
+            buckets.remove(bucketName, bucket);
+        }
+    }
+
+    /**
+     * Drops buckets that have been idle for a whole refill period (they would be full again),
+     * and clients left without buckets, so memory follows the active clients only.
+     */
+    void evictIdleBuckets() {
         Instant now = Instant.now();
-        long elapsedSeconds = Duration.between(bucket.lastRefillTime, now).getSeconds();
+        userBuckets.forEach((clientId, buckets) -> {
+            buckets.values().removeIf(bucket -> bucket.tryEvict(now));
+            // A request racing with this removal may recreate its bucket once, it starts full either way
+            userBuckets.computeIfPresent(clientId, (k, current) -> current.isEmpty() ? null : current);
+        });
+    }
 
-        if (elapsedSeconds >= REFILL_DURATION.getSeconds()) {
-            // If the refill period has passed, replenish the tokens
-            bucket.tokens = bucket.capacity;
-            bucket.lastRefillTime = now;
+    private void evictIdleBucketsIfDue() {
+        long now = System.nanoTime();
+        long due = nextEviction.get();
+        if (now - due >= 0 && nextEviction.compareAndSet(due, now + EVICTION_INTERVAL.toNanos())) {
+            evictIdleBuckets();
         }
+    }
 
-        // --- Consumption Logic ---
-        if (bucket.tokens > 0) {
-            bucket.tokens--;
-            return true;
-        } else {
-            return false;
-        }
+    int trackedClients() {
+        return userBuckets.size();
+    }
+
+    /**
+     * Counts a request towards the heavy-hitter statistics, whether it is allowed or not.
+     * @param clientId The ID of the user (or anonymous client).
+     * @param endpoint The endpoint key, e.g. "GET /api/v1/products".
+     */
+    public void recordRequest(String clientId, String endpoint) {
+        userCounts.add(clientId);
+        endpointCounts.add(endpoint);
+    }
+
+    /**
+     * Returns the clients with the most requests (approximate counts), highest first.
+     */
+    public Map<String, Long> topUsers(int limit) {
+        return userCounts.top(limit);
+    }
+
+    /**
+     * Returns the endpoints with the most requests (approximate counts), highest first.
+     */
+    public Map<String, Long> topEndpoints(int limit) {
+        return endpointCounts.top(limit);
+    }
+
+    /**
+     * Clears the heavy-hitter statistics. Rate limit buckets are not affected.
+     */
+    public void resetStatistics() {
+        userCounts.reset();
+        endpointCounts.reset();
+    }
+
+    /**
+     * Returns the current state of each of the client's buckets, keyed by bucket name.
+     */
+    public Map<String, Map<String, Object>> bucketState(String clientId) {
+        Map<String, Map<String, Object>> state = new LinkedHashMap<>();
+        userBuckets.getOrDefault(clientId, Map.of()).forEach((name, bucket) -> {
+            RateLimitBucket.Window window = bucket.window.get();
+            if (window == RateLimitBucket.EVICTED) {
+                return;
+            }
+            Map<String, Object> bucketState = new LinkedHashMap<>();
+            bucketState.put("capacity", bucket.capacity);
+            bucketState.put("tokens", window.tokens());
+            bucketState.put("lastRefillTime", window.lastRefillTime());
+            state.put(name, bucketState);
+        });
+        return state;
     }
 }
@@ -0,0 +1,26 @@
+package com.example.secure.global;
+
+import java.util.Locale;
+
+/**
+ * Request phases timed by {@link PhaseProfilingFilter}. Each phase ends at a mark in
+ * {@link PhaseTimeline} and covers the time since the previous mark.
+ */
+public enum RequestPhase {
+    /** Security filters up to and including BasicAuthenticationFilter (BCrypt). */
+    AUTHENTICATION,
+    /** The RateLimitFilter check. */
+    RATE_LIMIT,
+    /** URL authorization rules, dispatch and {@code @PreAuthorize}, up to the first service call. */
+    AUTHORIZATION,
+    /** Time spent inside ProductService. */
+    SERVICE,
+    /** Controller code between and after service calls, e.g. DTO mapping. */
+    CONTROLLER,
+    /** Writing the response body (Jackson JSON/CBOR/Smile). */
+    SERIALIZATION,
+    /** Anything after the last mark, e.g. an error response written by the security chain. */
+    OTHER;
+
+    final String tag = name().toLowerCase(Locale.ROOT).replace('_', '-');
+}
@@ -0,0 +1,84 @@
+package com.example.secure.product;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version clock shared by all partitions of the catalog, plus the registry of open snapshots.
+ * Every write takes the next version and publishes it once the new record is installed.
+ * Versions are published in order, so a snapshot reading the published watermark sees exactly
+ * the writes up to that version, on every partition and on every pass. Partitions keep
+ * superseded versions only while an open snapshot may still need them.
+ */
+class CatalogClock {
+    // Registered before a snapshot reads the watermark, so writers keep history in the meantime
+    private static final long PENDING = Long.MIN_VALUE;
+    private static final int SPINS_BEFORE_YIELD = 100;
+
+    // Last version handed out to a writer
+    private final AtomicLong allocated = new AtomicLong();
+    // Every write up to this version is installed and visible to snapshots
+    private final AtomicLong published = new AtomicLong();
+    // Open snapshot version -> number of snapshots open at that version
+    private final ConcurrentSkipListMap<Long, Integer> openSnapshots = new ConcurrentSkipListMap<>();
+
+    long nextVersion() {
+        return allocated.incrementAndGet();
+    }
+
+    /**
+     * Makes a write visible to snapshots once it is installed. Must be called exactly once for every
+     * version returned by {@link #nextVersion()}, also when the write failed, and outside of any lock.
+     */
+    void publish(long version) {
+        // Earlier writes may still be installing: wait for them so the watermark never skips a version
+        int spins = 0;
+        while (published.get() != version - 1) {
+            if (++spins % SPINS_BEFORE_YIELD == 0) {
+                Thread.yield();
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        published.set(version);
+    }
+
+    /**
+     * Returns the oldest version an open snapshot may read, or {@link Long#MAX_VALUE} if none is open.
+     */
+    long oldestOpenSnapshot() {
+        Map.Entry<Long, Integer> oldest = openSnapshots.firstEntry();
+        return oldest == null ? Long.MAX_VALUE : oldest.getKey();
+    }
+
+    /**
+     * Returns the oldest version any current or future snapshot may read. History at or below it
+     * that has been superseded can be dropped.
+     */
+    long oldestReadable() {
+        // Watermark first: a snapshot opening after this read sees at least this watermark
+        long watermark = published.get();
+        return Math.min(watermark, oldestOpenSnapshot());
+    }
+
+    long openSnapshot() {
+        register(PENDING);
+        long version = published.get();
+        register(version);
+        unregister(PENDING);
+        return version;
+    }
+
+    void closeSnapshot(long version) {
+        unregister(version);
+    }
+
+    private void register(long version) {
+        openSnapshots.merge(version, 1, Integer::sum);
+    }
+
+    private void unregister(long version) {
+        openSnapshots.computeIfPresent(version, (v, count) -> count == 1 ? null : count - 1);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.secure.product;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+/**
+ * Point-in-time view of the whole catalog. Reads see exactly the writes up to {@link #version()}
+ * on every partition, while writers carry on without locks. Must be closed so partitions can
+ * drop the history kept for it.
+ */
+public final class CatalogSnapshot implements AutoCloseable {
+    private final List<ProductPartition> partitions;
+    private final CatalogClock clock;
+    private final ExecutorService gatherExecutor;
+    private final long version;
+    private boolean closed;
+
+    CatalogSnapshot(List<ProductPartition> partitions, CatalogClock clock, ExecutorService gatherExecutor) {
+        this.partitions = partitions;
+        this.clock = clock;
+        this.gatherExecutor = gatherExecutor;
+        this.version = clock.openSnapshot();
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Visits the products one partition at a time, without copying the catalog.
+     */
+    public void forEach(Consumer<Product> action) {
+        partitions.forEach(partition -> partition.forEach(version, action));
+    }
+
+    /**
+     * Copies the snapshot, scattering the read to every partition in parallel when possible.
+     */
+    public List<Product> toList() {
+        List<Product> all = new ArrayList<>();
+        if (gatherExecutor == null) {
+            forEach(all::add);
+            return all;
+        }
+        List<CompletableFuture<List<Product>>> parts = partitions.stream()
+                .map(partition -> CompletableFuture.supplyAsync(() -> {
+                    List<Product> part = new ArrayList<>();
+                    partition.forEach(version, part::add);
+                    return part;
+                }, gatherExecutor))
+                .toList();
+        for (CompletableFuture<List<Product>> part : parts) {
+            all.addAll(part.join());
+        }
+        return all;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        clock.closeSnapshot(version);
+        // Drop the history of every key that no remaining snapshot can read
+        long oldest = clock.oldestReadable();
+        partitions.forEach(partition -> partition.purge(oldest));
+    }
+}
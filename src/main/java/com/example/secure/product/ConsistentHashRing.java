@@ -0,0 +1,66 @@
+package com.example.secure.product;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Consistent hash ring with virtual nodes.
+ * Each node is placed on the ring many times so keys spread evenly, and adding or removing a
+ * node only moves the keys of its own ring segments. The ring is immutable; lookups are a
+ * binary search over a sorted {@code long[]}.
+ */
+class ConsistentHashRing<T> {
+    private final long[] points;
+    private final Object[] owners;
+
+    /**
+     * Builds the ring.
+     * @param nodes The nodes, identified by their position in the list.
+     * @param virtualNodes How many points each node gets on the ring.
+     */
+    ConsistentHashRing(List<T> nodes, int virtualNodes) {
+        int size = nodes.size() * virtualNodes;
+        long[][] entries = new long[size][];
+        for (int node = 0; node < nodes.size(); node++) {
+            for (int replica = 0; replica < virtualNodes; replica++) {
+                long point = hash("node-" + node + "#" + replica);
+                entries[node * virtualNodes + replica] = new long[] {point, node};
+            }
+        }
+        Arrays.sort(entries, (a, b) -> Long.compare(a[0], b[0]));
+
+        this.points = new long[size];
+        this.owners = new Object[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = entries[i][0];
+            owners[i] = nodes.get((int) entries[i][1]);
+        }
+    }
+
+    /**
+     * Returns the node owning the key: the first ring point at or after the key's hash.
+     */
+    @SuppressWarnings("unchecked")
+    T route(String key) {
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return (T) owners[index == points.length ? 0 : index];
+    }
+
+    // 64-bit FNV-1a (per char, no allocation) followed by the Murmur3 finalizer for good avalanche on short keys
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.secure.product;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
@@ -11,10 +12,10 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Arrays;
-import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class ExternalApiService {
@@ -22,20 +23,32 @@ public class ExternalApiService {
     // --- API10: Circuit Breaker State ---
     private static final int FAILURE_THRESHOLD = 3;
     private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
-    // Allow-list for trusted external domains (API7: SSRF Defense)
-    private static final List<String> ALLOWED_HOSTS = Arrays.asList("jsonplaceholder.typicode.com", "external-api.trusted.com");
     // Timeout Configuration (API10: Resilience)
     private static final Duration API_TIMEOUT = Duration.ofSeconds(5);
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
+    // Allow-list for trusted external domains (API7: SSRF Defense)
+    private final HostAllowList allowedHosts;
     // ------------------------------------
     private final AtomicInteger failureCount = new AtomicInteger(0);
-    private Instant circuitOpenTime = Instant.MIN;
-
-    public ExternalApiService(ObjectMapper objectMapper) {
+    private volatile Instant circuitOpenTime = Instant.MIN;
+    // Calls rejected by the open breaker are only counted, they would flood the event log under load
+    private final AtomicLong blockedRequests = new AtomicLong();
+    // Breaker transitions and failures go to a lock-free ring buffer instead of the console
+    private final UpstreamEventLog eventLog;
+
+    public ExternalApiService(ObjectMapper objectMapper, UpstreamEventLog eventLog, HostAllowList allowedHosts,
+                              @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
         this.objectMapper = objectMapper;
+        this.allowedHosts = allowedHosts;
+        this.eventLog = eventLog;
         // API10: Configure HTTP client with a connection timeout
-        this.httpClient = HttpClient.newBuilder().connectTimeout(API_TIMEOUT).build();
+        HttpClient.Builder builder = HttpClient.newBuilder().connectTimeout(API_TIMEOUT);
+        if (virtualThreads) {
+            // Run the client's outbound work on virtual threads as well, like request handling
+            builder.executor(Executors.newVirtualThreadPerTaskExecutor());
+        }
+        this.httpClient = builder.build();
     }
 
     /**
@@ -49,12 +62,12 @@ public class ExternalApiService {
             String host = uri.getHost();
 
             // 1. Protocol Validation: Only allow HTTP(s)
-            if (protocol == null || !protocol.toLowerCase().matches("https?")) {
+            if (!"https".equalsIgnoreCase(protocol) && !"http".equalsIgnoreCase(protocol)) {
                 return false;
             }
 
             // 2. Allow-list Validation: Must be on the allowed host list
-            if (host == null || !ALLOWED_HOSTS.contains(host.toLowerCase())) {
+            if (host == null || !allowedHosts.isAllowed(host)) {
                 return false;
             }
 
@@ -104,11 +117,12 @@ public class ExternalApiService {
         } catch (IOException | InterruptedException e) {
             // Network error, connection timeout, or interrupted thread
             handleFailure(); // API10: Treat network/timeout errors as failure
-            System.err.println("External API call failed: " + e.getMessage());
+            eventLog.record(UpstreamEvent.Type.CALL_FAILED, "External API call failed: " + e.getMessage());
             return Optional.empty();
         } catch (Exception e) {
             // JSON parsing/Validation error (API10: Data structure validation failure)
-            System.err.println("External API response validation failed: " + e.getMessage());
+            eventLog.record(UpstreamEvent.Type.VALIDATION_FAILED,
+                    "External API response validation failed: " + e.getMessage());
             resetCircuit(); // The external API might be fine, but the data is bad. Don't trip breaker on bad data.
             return Optional.empty();
         }
@@ -120,11 +134,12 @@ public class ExternalApiService {
             // Circuit is open. Check if it's time to half-open/reset.
             if (Instant.now().isAfter(circuitOpenTime.plus(OPEN_DURATION))) {
                 // Time's up, allow one request (Half-Open state)
-                System.out.println("Circuit is Half-Open: Allowing a probe request.");
-                resetCircuit();
+                eventLog.record(UpstreamEvent.Type.CIRCUIT_HALF_OPEN, "Allowing a probe request.");
+                failureCount.set(0);
+                circuitOpenTime = Instant.MIN;
                 return false; // Allow the request
             }
-            System.out.println("Circuit is Open: Blocking request.");
+            blockedRequests.incrementAndGet();
             return true; // Block the request
         }
         return false;
@@ -134,13 +149,28 @@ public class ExternalApiService {
         int failures = failureCount.incrementAndGet();
         if (failures >= FAILURE_THRESHOLD) {
             circuitOpenTime = Instant.now();
-            System.err.println("Circuit Tripped: Open for " + OPEN_DURATION.getSeconds() + " seconds.");
+            eventLog.record(UpstreamEvent.Type.CIRCUIT_OPENED,
+                    "Open for " + OPEN_DURATION.getSeconds() + " seconds.");
         }
     }
 
     private void resetCircuit() {
-        failureCount.set(0);
-        circuitOpenTime = Instant.MIN;
-        System.out.println("Circuit Closed: Failure count reset.");
+        // Only a real transition is recorded, not every successful call
+        if (failureCount.getAndSet(0) > 0) {
+            circuitOpenTime = Instant.MIN;
+            eventLog.record(UpstreamEvent.Type.CIRCUIT_CLOSED, "Failure count reset.");
+        }
+    }
+
+    int getFailureCount() {
+        return failureCount.get();
+    }
+
+    long getBlockedRequests() {
+        return blockedRequests.get();
+    }
+
+    boolean isCircuitTripped() {
+        return failureCount.get() >= FAILURE_THRESHOLD;
     }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.example.secure.product;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Trusted external hosts for {@link ExternalApiService} (API7: SSRF Defense).
+ * Loaded from {@code app.external.allowed-hosts} plus an optional file with one entry per line,
+ * and compiled into a {@link HostMatcher}. {@link #reload()} re-reads the file and swaps the
+ * matcher in one volatile write, so checks in flight keep using the previous list.
+ */
+@Component
+public class HostAllowList {
+
+    private final List<String> configuredHosts;
+    private final Path hostsFile;
+    private volatile HostMatcher matcher;
+    private volatile Instant loadedAt;
+
+    public HostAllowList(
+            @Value("${app.external.allowed-hosts:jsonplaceholder.typicode.com,external-api.trusted.com}")
+            String[] configuredHosts,
+            @Value("${app.external.allowed-hosts-file:}") String hostsFile) {
+        this.configuredHosts = List.copyOf(Arrays.asList(configuredHosts));
+        this.hostsFile = hostsFile.isBlank() ? null : Path.of(hostsFile);
+        reload();
+    }
+
+    public boolean isAllowed(String host) {
+        return matcher.matches(host);
+    }
+
+    /**
+     * Recompiles the allow-list from configuration and the hosts file.
+     * On error the current list stays in place.
+     */
+    public synchronized void reload() {
+        List<String> entries = new ArrayList<>(configuredHosts);
+        if (hostsFile != null) {
+            try {
+                entries.addAll(Files.readAllLines(hostsFile));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read allowed hosts from " + hostsFile, e);
+            }
+        }
+        this.matcher = HostMatcher.compile(entries);
+        this.loadedAt = Instant.now();
+    }
+
+    int exactCount() {
+        return matcher.exactCount();
+    }
+
+    int wildcardCount() {
+        return matcher.wildcardCount();
+    }
+
+    Path hostsFile() {
+        return hostsFile;
+    }
+
+    Instant loadedAt() {
+        return loadedAt;
+    }
+}
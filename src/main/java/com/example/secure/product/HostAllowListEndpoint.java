@@ -0,0 +1,56 @@
+package com.example.secure.product;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shows the size of the external host allow-list at /actuator/allowedhosts.
+ * A POST reloads it from configuration and the hosts file without a restart; if that fails the
+ * current list stays in place and the error is reported.
+ */
+@Component
+@Endpoint(id = "allowedhosts")
+public class HostAllowListEndpoint {
+
+    private final HostAllowList allowList;
+
+    public HostAllowListEndpoint(HostAllowList allowList) {
+        this.allowList = allowList;
+    }
+
+    @ReadOperation
+    public Map<String, Object> allowedHosts() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("exactHosts", allowList.exactCount());
+        state.put("wildcardDomains", allowList.wildcardCount());
+        state.put("file", allowList.hostsFile() != null ? allowList.hostsFile().toString() : null);
+        state.put("loadedAt", allowList.loadedAt());
+        return state;
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> reload() {
+        try {
+            allowList.reload();
+            return new WebEndpointResponse<>(allowedHosts());
+        } catch (IllegalArgumentException e) {
+            // Invalid entry in the configuration or the hosts file
+            return failed(e.getMessage(), WebEndpointResponse.STATUS_BAD_REQUEST);
+        } catch (UncheckedIOException e) {
+            return failed(e.getMessage(), WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private WebEndpointResponse<Map<String, Object>> failed(String message, int status) {
+        Map<String, Object> state = allowedHosts();
+        state.put("error", message);
+        return new WebEndpointResponse<>(state, status);
+    }
+}
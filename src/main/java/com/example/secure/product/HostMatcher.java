@@ -0,0 +1,145 @@
+package com.example.secure.product;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Immutable, precompiled host allow-list (API7: SSRF Defense).
+ * Entries are exact hosts ({@code api.partner.com}) or wildcards ({@code *.partner.com}, which
+ * matches any subdomain but not {@code partner.com} itself).
+ * Both kinds live in open-addressing hash tables keyed by a hash computed from the last
+ * character backwards, so a single right-to-left pass over the host checks every parent domain
+ * against the wildcards and the full host against the exact entries: no regex, no substring
+ * and no lower-casing copy per check.
+ */
+final class HostMatcher {
+    private static final String WILDCARD_PREFIX = "*.";
+
+    private final Table exact;
+    private final Table wildcards;
+
+    private HostMatcher(Set<String> exactHosts, Set<String> wildcardDomains) {
+        this.exact = new Table(exactHosts);
+        this.wildcards = new Table(wildcardDomains);
+    }
+
+    /**
+     * Compiles the entries, ignoring blanks and {@code #} comments.
+     * @throws IllegalArgumentException if an entry is not a host name or {@code *.domain} wildcard.
+     */
+    static HostMatcher compile(Collection<String> entries) {
+        Set<String> exactHosts = new LinkedHashSet<>();
+        Set<String> wildcardDomains = new LinkedHashSet<>();
+        for (String entry : entries) {
+            String host = entry.trim().toLowerCase(Locale.ROOT);
+            if (host.isEmpty() || host.startsWith("#")) {
+                continue;
+            }
+            if (host.startsWith(WILDCARD_PREFIX)) {
+                wildcardDomains.add(validate(entry, host.substring(WILDCARD_PREFIX.length())));
+            } else {
+                exactHosts.add(validate(entry, host));
+            }
+        }
+        return new HostMatcher(exactHosts, wildcardDomains);
+    }
+
+    boolean matches(String host) {
+        int length = host.length();
+        if (length == 0) {
+            return false;
+        }
+        int hash = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            char c = host.charAt(i);
+            // A wildcard domain must be preceded by at least one label: "x.partner.com"
+            if (c == '.' && i > 0 && wildcards.contains(host, i + 1, hash)) {
+                return true;
+            }
+            hash = step(hash, c);
+        }
+        return exact.contains(host, 0, hash);
+    }
+
+    int exactCount() {
+        return exact.size;
+    }
+
+    int wildcardCount() {
+        return wildcards.size;
+    }
+
+    // Hash of host[offset..] folded from the end, ASCII case-insensitive
+    private static int step(int hash, char c) {
+        if (c >= 'A' && c <= 'Z') {
+            c = (char) (c + ('a' - 'A'));
+        }
+        return hash * 31 + c;
+    }
+
+    private static int suffixHash(String host) {
+        int hash = 0;
+        for (int i = host.length() - 1; i >= 0; i--) {
+            hash = step(hash, host.charAt(i));
+        }
+        return hash;
+    }
+
+    private static String validate(String entry, String host) {
+        if (host.isEmpty() || host.startsWith(".") || host.endsWith(".") || host.contains("..")) {
+            throw new IllegalArgumentException("Invalid allowed host: '" + entry + "'");
+        }
+        for (int i = 0; i < host.length(); i++) {
+            char c = host.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= '0' && c <= '9' || c == '-' || c == '.')) {
+                throw new IllegalArgumentException("Invalid allowed host: '" + entry + "'");
+            }
+        }
+        return host;
+    }
+
+    /**
+     * Linear-probing set of lower-case host names, sized to stay at most half full.
+     */
+    private static final class Table {
+        final String[] keys;
+        final int[] hashes;
+        final int mask;
+        final int size;
+
+        Table(Set<String> hosts) {
+            int capacity = Integer.highestOneBit(Math.max(2, hosts.size()) * 2 - 1) << 1;
+            this.keys = new String[capacity];
+            this.hashes = new int[capacity];
+            this.mask = capacity - 1;
+            this.size = hosts.size();
+            for (String host : hosts) {
+                int hash = suffixHash(host);
+                int slot = spread(hash) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = host;
+                hashes[slot] = hash;
+            }
+        }
+
+        boolean contains(String host, int offset, int hash) {
+            int length = host.length() - offset;
+            for (int slot = spread(hash) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+                String key = keys[slot];
+                if (hashes[slot] == hash && key.length() == length
+                        && host.regionMatches(true, offset, key, 0, length)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.secure.product;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * In-memory partition backed by a {@link ConcurrentHashMap} of version chains (MVCC).
+ * Writes swap in a new immutable record with {@code compute} and link the superseded record as
+ * its {@code previous}. Superseded records and delete tombstones are dropped as soon as no
+ * current or future snapshot can read them: right after the write when no snapshot is open,
+ * otherwise when the oldest snapshot that needs them is closed.
+ */
+class LocalProductPartition implements ProductPartition {
+    private final Map<String, Versioned> productRepo = new ConcurrentHashMap<>();
+    // Records that still link older history (or are tombstones), trimmed by purge()
+    private final Queue<History> history = new ConcurrentLinkedQueue<>();
+    private final CatalogClock clock;
+
+    LocalProductPartition(CatalogClock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public Product get(String id) {
+        Versioned latest = productRepo.get(id);
+        return latest == null ? null : latest.product;
+    }
+
+    @Override
+    public Product insert(String id, LongFunction<Product> factory) {
+        long[] version = new long[1];
+        try {
+            return productRepo.compute(id, (k, current) -> {
+                version[0] = clock.nextVersion();
+                return link(id, factory.apply(version[0]), version[0], current);
+            }).product;
+        } finally {
+            published(version[0]);
+        }
+    }
+
+    @Override
+    public Product update(String id, Update update) {
+        long[] version = new long[1];
+        try {
+            Versioned updated = productRepo.computeIfPresent(id, (k, current) -> {
+                if (current.product == null) {
+                    return current; // Deleted
+                }
+                version[0] = clock.nextVersion();
+                return link(id, update.apply(current.product, version[0]), version[0], current);
+            });
+            return updated == null ? null : updated.product;
+        } finally {
+            published(version[0]);
+        }
+    }
+
+    @Override
+    public boolean remove(String id) {
+        long[] version = new long[1];
+        try {
+            productRepo.computeIfPresent(id, (k, current) -> {
+                if (current.product == null) {
+                    return current; // Already deleted
+                }
+                version[0] = clock.nextVersion();
+                // Tombstone until no snapshot older than the delete can be opened or is open
+                return link(id, null, version[0], current);
+            });
+            return version[0] != 0;
+        } finally {
+            published(version[0]);
+        }
+    }
+
+    @Override
+    public void forEach(long version, Consumer<Product> action) {
+        for (Versioned latest : productRepo.values()) {
+            Versioned visible = latest;
+            // Walk back to the newest record written at or before the snapshot version
+            while (visible != null && visible.version > version) {
+                visible = visible.previous;
+            }
+            if (visible != null && visible.product != null) {
+                action.accept(visible.product);
+            }
+        }
+    }
+
+    @Override
+    public void purge(long oldestReadable) {
+        for (int i = history.size(); i > 0; i--) {
+            History entry = history.poll();
+            if (entry == null) {
+                return;
+            }
+            if (oldestReadable >= entry.node.version) {
+                // Every reader stops at this record or a newer one
+                entry.node.previous = null;
+                if (entry.node.product == null) {
+                    productRepo.remove(entry.id, entry.node);
+                }
+            } else {
+                history.add(entry);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return productRepo.size();
+    }
+
+    // Number of records kept for the product, including history and tombstones
+    int versions(String id) {
+        int versions = 0;
+        for (Versioned node = productRepo.get(id); node != null; node = node.previous) {
+            versions++;
+        }
+        return versions;
+    }
+
+    // Called inside compute(): the new version is not published yet, so readers may still need current
+    private Versioned link(String id, Product product, long version, Versioned current) {
+        Versioned next = new Versioned(product, version, current);
+        if (current != null) {
+            history.add(new History(id, next));
+        }
+        return next;
+    }
+
+    private void published(long version) {
+        if (version == 0) {
+            return; // Nothing was written
+        }
+        clock.publish(version);
+        if (clock.oldestOpenSnapshot() == Long.MAX_VALUE) {
+            // No snapshot open: drop the history right away, otherwise the last close does it
+            purge(clock.oldestReadable());
+        }
+    }
+
+    private static final class Versioned {
+        final Product product; // null marks a deleted product
+        final long version;
+        volatile Versioned previous;
+
+        Versioned(Product product, long version, Versioned previous) {
+            this.product = product;
+            this.version = version;
+            this.previous = previous;
+        }
+    }
+
+    private record History(String id, Versioned node) {
+    }
+}
@@ -1,23 +1,38 @@
 package com.example.secure.product;
 
-public class Product {
-    private String id;
-    private String name;
-    private String description;
-    private String ownerId;
-    private double retailPrice; // Publicly visible price
-    private double costPrice;   // Internal/Sensitive field - DO NOT EXPOSE
-
-    public Product(String id, String name, String description, String ownerId, double retailPrice, double costPrice) {
+/**
+ * Immutable product record. Updates create a new instance with a higher version that replaces
+ * the old one atomically, so readers never observe a half-updated product and instances can
+ * be cached and shared freely.
+ */
+public final class Product {
+    private final String id;
+    private final String name;
+    private final String description;
+    private final String ownerId;
+    private final double retailPrice; // Publicly visible price
+    private final double costPrice;   // Internal/Sensitive field - DO NOT EXPOSE
+    private final long version;       // Catalog version of the write that produced this record
+
+    public Product(String id, String name, String description, String ownerId, double retailPrice, double costPrice,
+                   long version) {
         this.id = id;
         this.name = name;
         this.description = description;
         this.ownerId = ownerId;
         this.retailPrice = retailPrice;
         this.costPrice = costPrice;
+        this.version = version;
     }
 
-    // Getters and Setters
+    /**
+     * Returns a copy with the fields a product update may change.
+     */
+    public Product withDetails(String name, String description, double retailPrice, long version) {
+        return new Product(id, name, description, ownerId, retailPrice, costPrice, version);
+    }
+
+    // Getters
     public String getId() {
         return id;
     }
@@ -26,18 +41,10 @@ public class Product {
         return name;
     }
 
-    public void setName(String name) {
-        this.name = name;
-    }
-
     public String getDescription() {
         return description;
     }
 
-    public void setDescription(String description) {
-        this.description = description;
-    }
-
     public String getOwnerId() {
         return ownerId;
     }
@@ -46,15 +53,11 @@ public class Product {
         return retailPrice;
     }
 
-    public void setRetailPrice(double retailPrice) {
-        this.retailPrice = retailPrice;
-    }
-
     public double getCostPrice() {
         return costPrice;
     }
 
-    public void setCostPrice(double costPrice) {
-        this.costPrice = costPrice;
+    public long getVersion() {
+        return version;
     }
 }
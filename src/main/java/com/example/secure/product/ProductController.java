@@ -1,56 +1,98 @@
 package com.example.secure.product;
 
-import com.example.secure.global.RateLimitingService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/products")
 public class ProductController {
 
+    // Binary encodings negotiated through the Accept header, JSON stays the default
+    static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    static final String TEXT_CSV_VALUE = "text/csv";
+
     private final ProductService productService;
-    private final RateLimitingService rateLimitingService;
+    private final ProductImporter productImporter;
+    private final ProductExporter productExporter;
 
-    public ProductController(ProductService productService, RateLimitingService rateLimitingService) {
+    public ProductController(ProductService productService, ProductImporter productImporter,
+                             ProductExporter productExporter) {
         this.productService = productService;
-        this.rateLimitingService = rateLimitingService;
+        this.productImporter = productImporter;
+        this.productExporter = productExporter;
     }
 
     /**
      * Retrieves all products. Accessible to all authenticated users.
+     * Rate limited (API4) by the RateLimitFilter policies in the security chain.
+     * @param fields Optional sparse fieldset, e.g. "id,name,retailPrice".
      */
-    @GetMapping
-    public ResponseEntity<List<ProductResponseDTO>> getAllProducts() {
-
-        // Add rate limit !!
-        String currentUserId = SecurityContextHolder.getContext().getAuthentication().getName();
-        if (!rateLimitingService.allowRequest(currentUserId)) {
-            // Respond with 429 Too Many Requests if the limit is exceeded
-            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
-                    .header("Retry-After", "60")
-                    .build();
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            APPLICATION_SMILE_VALUE})
+    public ResponseEntity<List<?>> getAllProducts(@RequestParam(required = false) String fields) {
+        if (fields == null) {
+            return ResponseEntity.ok(productService.findAll().stream()
+                    .map(ProductResponseDTO::new) // API3: Use DTO for output
+                    .collect(Collectors.toList()));
         }
 
+        ProductFieldSet fieldSet = parseFields(fields);
+        if (fieldSet == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        // Sparse fieldset: only the requested fields are written, straight from the model
         return ResponseEntity.ok(productService.findAll().stream()
-                .map(ProductResponseDTO::new) // API3: Use DTO for output
+                .map(product -> new ProductView(product, fieldSet))
                 .collect(Collectors.toList()));
     }
 
+    /**
+     * Streams the whole catalog as NDJSON (one product per line) from a consistent snapshot.
+     * @param fields Optional sparse fieldset, e.g. "id,name".
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')") // BFLA (API5)
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(required = false) String fields) {
+        ProductFieldSet fieldSet = fields == null ? ProductFieldSet.ALL : parseFields(fields);
+        if (fieldSet == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> productExporter.export(fieldSet, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     /**
      * Retrieves a single product.
+     * @param fields Optional sparse fieldset, e.g. "id,name".
      */
-    @GetMapping("/{id}")
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            APPLICATION_SMILE_VALUE})
     @PreAuthorize("hasRole('ADMIN') or hasRole('USER')") // BFLA (API5)
-    public ResponseEntity<ProductResponseDTO> getProductById(@PathVariable String id) {
+    public ResponseEntity<?> getProductById(@PathVariable String id,
+                                            @RequestParam(required = false) String fields) {
+        ProductFieldSet fieldSet = fields == null ? null : parseFields(fields);
+        if (fields != null && fieldSet == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
         return productService.findById(id)
-                .map(ProductResponseDTO::new) // API3: Use DTO for output
+                .<Object>map(product -> fieldSet == null
+                        ? new ProductResponseDTO(product) // API3: Use DTO for output
+                        : new ProductView(product, fieldSet))
                 .map(ResponseEntity::ok)
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
@@ -69,6 +111,36 @@ public class ProductController {
         return new ProductResponseDTO(newProduct);
     }
 
+    /**
+     * Bulk import from a CSV (header: name,description,retailPrice) or NDJSON body.
+     * Progress, line errors and a final summary are streamed back as NDJSON.
+     */
+    @PostMapping(value = "/import", consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')") // BFLA (API5)
+    public ResponseEntity<StreamingResponseBody> importProducts(@RequestHeader("Content-Type") MediaType contentType,
+                                                                HttpServletRequest request) throws IOException {
+        ProductImporter.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? ProductImporter.Format.NDJSON
+                : ProductImporter.Format.CSV;
+        // API1: imported products are owned by the authenticated admin
+        String currentUserId = SecurityContextHolder.getContext().getAuthentication().getName();
+
+        Optional<Path> upload = productImporter.spool(request.getInputStream());
+        if (upload.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.PAYLOAD_TOO_LARGE); // API4
+        }
+        Path file = upload.get();
+        StreamingResponseBody body = out -> {
+            try {
+                productImporter.importFile(file, format, currentUserId, productImporter.ndjson(out));
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     /**
      * Updates an existing product.
      */
@@ -107,4 +179,13 @@ public class ProductController {
         productService.delete(id);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    // API8: Only known public fields can be selected, anything else is a bad request
+    private static ProductFieldSet parseFields(String fields) {
+        try {
+            return ProductFieldSet.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,58 @@
+package com.example.secure.product;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Streams the catalog as NDJSON, one product per line.
+ * Products are read lazily from a {@link CatalogSnapshot} and written straight to the response,
+ * so the first line goes out before the catalog is walked and the heap use does not depend on
+ * its size. Output is flushed every {@link #FLUSH_EVERY} products.
+ */
+@Service
+public class ProductExporter {
+
+    private static final int FLUSH_EVERY = 1000;
+
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+
+    public ProductExporter(ProductService productService, ObjectMapper objectMapper) {
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes every product as of one point in time.
+     * @return The number of products written.
+     */
+    public long export(ProductFieldSet fields, OutputStream out) throws IOException {
+        long[] written = new long[1];
+        try (CatalogSnapshot snapshot = productService.snapshot();
+             JsonGenerator gen = objectMapper.createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.setRootValueSeparator(null); // One line per product instead of space separated
+            snapshot.forEach(product -> {
+                try {
+                    // API3: same public fields as the DTO, costPrice is never written
+                    ProductView.write(product, fields, gen);
+                    gen.writeRaw('\n');
+                    if (++written[0] % FLUSH_EVERY == 0) {
+                        gen.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client closed the connection, stops the walk
+            throw e.getCause();
+        }
+        return written[0];
+    }
+}
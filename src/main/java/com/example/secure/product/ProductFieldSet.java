@@ -0,0 +1,50 @@
+package com.example.secure.product;
+
+/**
+ * The public product fields selected by a {@code fields=id,name,retailPrice} query parameter.
+ * Only fields of {@link ProductResponseDTO} can be selected (API3: ownerId and costPrice are
+ * never exposed). Stored as a bit mask so the serializer checks each field with one AND.
+ */
+final class ProductFieldSet {
+    static final int ID = 1;
+    static final int NAME = 1 << 1;
+    static final int DESCRIPTION = 1 << 2;
+    static final int RETAIL_PRICE = 1 << 3;
+
+    static final ProductFieldSet ALL = new ProductFieldSet(ID | NAME | DESCRIPTION | RETAIL_PRICE);
+
+    private final int mask;
+
+    private ProductFieldSet(int mask) {
+        this.mask = mask;
+    }
+
+    /**
+     * Parses a comma-separated field list.
+     * @throws IllegalArgumentException if the list is empty or names an unknown field.
+     */
+    static ProductFieldSet parse(String fields) {
+        int mask = 0;
+        int start = 0;
+        while (start <= fields.length()) {
+            int end = fields.indexOf(',', start);
+            if (end < 0) {
+                end = fields.length();
+            }
+            String field = fields.substring(start, end).trim();
+            mask |= switch (field) {
+                case "id" -> ID;
+                case "name" -> NAME;
+                case "description" -> DESCRIPTION;
+                case "retailPrice" -> RETAIL_PRICE;
+                default -> throw new IllegalArgumentException("Unknown product field: '" + field + "'");
+            };
+            start = end + 1;
+        }
+        return new ProductFieldSet(mask);
+    }
+
+    boolean includes(int field) {
+        return (mask & field) != 0;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.secure.product;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates product ids that are unique across nodes.
+ * Node 0 keeps the original "p" + counter format; every other node appends its node id
+ * ("p17-2"), so two nodes can never hand out the same id.
+ */
+class ProductIdGenerator {
+    private final int nodeId;
+    private final AtomicLong idCounter;
+
+    ProductIdGenerator(int nodeId, long initialValue) {
+        this.nodeId = nodeId;
+        this.idCounter = new AtomicLong(initialValue);
+    }
+
+    String next() {
+        long sequence = idCounter.incrementAndGet();
+        return nodeId == 0 ? "p" + sequence : "p" + sequence + "-" + nodeId;
+    }
+}
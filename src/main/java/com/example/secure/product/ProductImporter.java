@@ -0,0 +1,365 @@
+package com.example.secure.product;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Bulk product import from CSV or NDJSON files of any size.
+ * The file is memory-mapped one chunk at a time, each chunk cut at a line boundary. Chunks are
+ * parsed and validated in parallel against the {@link ProductCreateDTO} rules, then inserted in
+ * file order, one batch per chunk. At most {@link #MAX_CHUNKS_IN_FLIGHT} chunks are queued,
+ * which holds back the reader while inserts catch up and keeps the heap use flat.
+ */
+@Service
+public class ProductImporter {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    /**
+     * Receives progress, error and summary events while an import runs.
+     */
+    @FunctionalInterface
+    public interface EventSink {
+        void accept(Map<String, Object> event) throws IOException;
+    }
+
+    private static final int CHUNK_SIZE = 1024 * 1024;
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+    private static final int MAX_CHUNKS_IN_FLIGHT = PARALLELISM * 2;
+    // Individual line errors reported before only the count is kept
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final List<String> CSV_COLUMNS = List.of("name", "description", "retailprice");
+
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    // API4: upper bound for a spooled upload
+    private final long maxSize;
+    private final ExecutorService parseExecutor = Executors.newFixedThreadPool(PARALLELISM, r -> {
+        Thread thread = new Thread(r, "product-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ProductImporter(ProductService productService, ObjectMapper objectMapper, Validator validator,
+                           @Value("${app.products.import.max-size:1GB}") DataSize maxSize) {
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.maxSize = maxSize.toBytes();
+    }
+
+    /**
+     * Copies an upload to a temporary file so it can be memory-mapped.
+     * @return The file, or empty if the upload exceeds the configured maximum size.
+     */
+    public Optional<Path> spool(InputStream body) throws IOException {
+        Path file = Files.createTempFile("product-import-", ".tmp");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            byte[] buffer = new byte[64 * 1024];
+            long total = 0;
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                total += read;
+                if (total > maxSize) {
+                    out.close();
+                    Files.delete(file);
+                    return Optional.empty();
+                }
+                out.write(buffer, 0, read);
+            }
+            return Optional.of(file);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Writes each event as one NDJSON line, flushing after every progress update.
+     */
+    public EventSink ndjson(OutputStream out) {
+        return event -> {
+            out.write(objectMapper.writeValueAsBytes(event));
+            out.write('\n');
+            if (!"error".equals(event.get("type"))) {
+                out.flush();
+            }
+        };
+    }
+
+    /**
+     * Imports every valid line of the file for the given owner. Invalid lines are skipped and reported.
+     */
+    public void importFile(Path file, Format format, String ownerId, EventSink events) throws IOException {
+        Totals totals = new Totals();
+        Deque<Future<ChunkResult>> inFlight = new ArrayDeque<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            int[] columns = null;
+            if (format == Format.CSV && size > 0) {
+                ByteBuffer first = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(CHUNK_SIZE, size));
+                int headerEnd = indexOf(first, 0, first.limit(), (byte) '\n');
+                String header = decode(first, 0, headerEnd < 0 ? first.limit() : headerEnd);
+                columns = csvColumns(header);
+                position = headerEnd < 0 ? size : headerEnd + 1;
+                totals.lines = 1;
+                if (columns == null) {
+                    events.accept(error(1, "CSV header must contain the columns name, description, retailPrice"));
+                    events.accept(totals.event("summary"));
+                    return;
+                }
+            }
+
+            while (position < size) {
+                long length = Math.min(CHUNK_SIZE, size - position);
+                ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int end = (int) length;
+                if (position + length < size) {
+                    // Cut at the last complete line, the rest starts the next chunk
+                    end = lastIndexOf(chunk, (int) length, (byte) '\n') + 1;
+                    if (end == 0) {
+                        drain(inFlight, ownerId, totals, events);
+                        events.accept(error(totals.lines + 1, "Line longer than " + CHUNK_SIZE + " bytes"));
+                        break;
+                    }
+                }
+                ByteBuffer lineChunk = chunk.slice(0, end);
+                int[] csvColumns = columns;
+                inFlight.add(parseExecutor.submit(() -> parse(lineChunk, format, csvColumns)));
+                position += end;
+
+                // Backpressure: insert the oldest chunk before reading more of the file
+                if (inFlight.size() >= MAX_CHUNKS_IN_FLIGHT) {
+                    insert(join(inFlight.poll()), ownerId, totals, events);
+                }
+            }
+            drain(inFlight, ownerId, totals, events);
+            events.accept(totals.event("summary"));
+        } finally {
+            // Client went away or the import failed: stop parsing what is left
+            inFlight.forEach(pending -> pending.cancel(true));
+        }
+    }
+
+    private void drain(Deque<Future<ChunkResult>> inFlight, String ownerId, Totals totals, EventSink events)
+            throws IOException {
+        while (!inFlight.isEmpty()) {
+            insert(join(inFlight.poll()), ownerId, totals, events);
+        }
+    }
+
+    // Runs on the request thread, chunk by chunk in file order
+    private void insert(ChunkResult result, String ownerId, Totals totals, EventSink events) throws IOException {
+        totals.imported += productService.saveAll(result.products, ownerId);
+        for (LineError lineError : result.errors) {
+            if (totals.rejected++ < MAX_REPORTED_ERRORS) {
+                events.accept(error(totals.lines + lineError.line, lineError.message));
+            }
+        }
+        totals.lines += result.lines;
+        events.accept(totals.event("progress"));
+    }
+
+    // Runs on the parse pool: decode, map and validate every line of one chunk
+    private ChunkResult parse(ByteBuffer chunk, Format format, int[] columns) {
+        ChunkResult result = new ChunkResult();
+        int start = 0;
+        int limit = chunk.limit();
+        while (start < limit) {
+            int newline = indexOf(chunk, start, limit, (byte) '\n');
+            int end = newline < 0 ? limit : newline;
+            result.lines++;
+            String line = decode(chunk, start, end).strip();
+            start = end + 1;
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                ProductCreateDTO dto = format == Format.CSV
+                        ? fromCsv(line, columns)
+                        : objectMapper.readValue(line, ProductCreateDTO.class);
+                // API8: same validation rules as POST /api/v1/products
+                Set<ConstraintViolation<ProductCreateDTO>> violations = validator.validate(dto);
+                if (violations.isEmpty()) {
+                    result.products.add(dto);
+                } else {
+                    result.errors.add(new LineError(result.lines, violations.iterator().next().getMessage()));
+                }
+            } catch (IOException | RuntimeException e) {
+                // One bad line must never abort the import, it is rejected and reported
+                result.errors.add(new LineError(result.lines, "Malformed " + format + " line"));
+            }
+        }
+        return result;
+    }
+
+    private static ProductCreateDTO fromCsv(String line, int[] columns) {
+        List<String> fields = splitCsv(line);
+        int width = 0;
+        for (int column : columns) {
+            width = Math.max(width, column + 1);
+        }
+        if (fields.size() < width) {
+            throw new IllegalArgumentException("Missing columns");
+        }
+        ProductCreateDTO dto = new ProductCreateDTO();
+        dto.setName(fields.get(columns[0]));
+        dto.setDescription(fields.get(columns[1]));
+        dto.setRetailPrice(Double.parseDouble(fields.get(columns[2])));
+        return dto;
+    }
+
+    // Index of the name, description and retailPrice columns, or null if one is missing
+    private static int[] csvColumns(String header) {
+        List<String> names = splitCsv(header.strip());
+        int[] columns = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = -1;
+            for (int j = 0; j < names.size(); j++) {
+                if (names.get(j).strip().toLowerCase(Locale.ROOT).equals(CSV_COLUMNS.get(i))) {
+                    columns[i] = j;
+                }
+            }
+            if (columns[i] < 0) {
+                return null;
+            }
+        }
+        return columns;
+    }
+
+    // RFC 4180 fields on a single line: quoted fields may contain commas and "" escapes
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String decode(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int indexOf(ByteBuffer buffer, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(ByteBuffer buffer, int to, byte value) {
+        for (int i = to - 1; i >= 0; i--) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static ChunkResult join(Future<ChunkResult> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Import failed", e.getCause());
+        }
+    }
+
+    private static Map<String, Object> error(long line, String message) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", "error");
+        event.put("line", line);
+        event.put("message", message);
+        return event;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        parseExecutor.shutdownNow();
+    }
+
+    private static final class ChunkResult {
+        final List<ProductCreateDTO> products = new ArrayList<>();
+        final List<LineError> errors = new ArrayList<>();
+        int lines;
+    }
+
+    private static final class Totals {
+        long lines;
+        long imported;
+        long rejected;
+
+        Map<String, Object> event(String type) {
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("type", type);
+            event.put("lines", lines);
+            event.put("imported", imported);
+            event.put("rejected", rejected);
+            return event;
+        }
+    }
+
+    private record LineError(int line, String message) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.secure.product;
+
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * One shard of the product catalog. {@link ProductService} routes each product id to a
+ * partition by consistent hashing; a partition can live in this JVM or on another node.
+ * Products are immutable: every write installs a new record stamped with a catalog version.
+ */
+interface ProductPartition {
+
+    /**
+     * Returns the latest version of the product, or null if it does not exist.
+     */
+    Product get(String id);
+
+    /**
+     * Inserts a new product built for the version assigned to the write.
+     */
+    Product insert(String id, LongFunction<Product> factory);
+
+    /**
+     * Atomically replaces an existing product.
+     * @return The new record, or null if the product does not exist.
+     */
+    Product update(String id, Update update);
+
+    boolean remove(String id);
+
+    /**
+     * Visits every product as of the given catalog version, without blocking writers.
+     */
+    void forEach(long version, Consumer<Product> action);
+
+    /**
+     * Drops superseded records and tombstones that no snapshot at or after the given version can read.
+     */
+    void purge(long oldestReadable);
+
+    /**
+     * Number of products held, including deleted ones an open snapshot can still read.
+     */
+    int size();
+
+    @FunctionalInterface
+    interface Update {
+        Product apply(Product current, long version);
+    }
+}
@@ -1,62 +1,133 @@
 package com.example.secure.product;
 
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongFunction;
+import java.util.stream.IntStream;
 
 @Service
 public class ProductService {
-    private final Map<String, Product> productRepo = new ConcurrentHashMap<>();
-    private final AtomicInteger idCounter = new AtomicInteger(3); // Start after initial data
+    // Points per partition on the consistent hash ring
+    private static final int VIRTUAL_NODES = 128;
+
+    private final List<ProductPartition> partitions;
+    // Versions every write, shared by all partitions so snapshots are consistent across them
+    private final CatalogClock clock;
+    private final ConsistentHashRing<ProductPartition> ring;
+    private final ProductIdGenerator idGenerator;
+    // Scatter/gather pool for snapshot reads, only needed with more than one partition
+    private final ExecutorService gatherExecutor;
+
+    @Autowired
+    public ProductService(@Value("${app.products.partitions:1}") int partitionCount,
+                          @Value("${app.products.node-id:0}") int nodeId) {
+        this(new CatalogClock(), partitionCount, nodeId);
+    }
+
+    ProductService(CatalogClock clock, int partitionCount, int nodeId) {
+        this(clock, IntStream.range(0, partitionCount)
+                .<ProductPartition>mapToObj(i -> new LocalProductPartition(clock))
+                .toList(), nodeId);
+    }
+
+    ProductService(CatalogClock clock, List<ProductPartition> partitions, int nodeId) {
+        // Fail fast with the property name, an empty ring would only fail on the first insert
+        if (partitions.isEmpty()) {
+            throw new IllegalArgumentException("app.products.partitions must be at least 1");
+        }
+        if (nodeId < 0) {
+            throw new IllegalArgumentException("app.products.node-id must not be negative, was " + nodeId);
+        }
+        this.clock = clock;
+        this.partitions = List.copyOf(partitions);
+        this.ring = new ConsistentHashRing<>(this.partitions, VIRTUAL_NODES);
+        this.idGenerator = new ProductIdGenerator(nodeId, 3); // Start after initial data
+        this.gatherExecutor = this.partitions.size() > 1
+                ? Executors.newFixedThreadPool(Math.min(this.partitions.size(),
+                        Runtime.getRuntime().availableProcessors()), r -> {
+                            Thread thread = new Thread(r, "product-gather");
+                            thread.setDaemon(true);
+                            return thread;
+                        })
+                : null;
 
-    public ProductService() {
         // Initial dummy data for users "user1" and "admin"
-        productRepo.put("p001", new Product("p001", "Widget A", "User1's product", "user1", 19.99, 10.00));
-        productRepo.put("p002", new Product("p002", "Gadget B", "Admin's product", "admin", 99.99, 50.00));
-        productRepo.put("p003", new Product("p003", "Thing C", "Another User1 product", "user1", 5.00, 2.50));
+        insert("p001", v -> new Product("p001", "Widget A", "User1's product", "user1", 19.99, 10.00, v));
+        insert("p002", v -> new Product("p002", "Gadget B", "Admin's product", "admin", 99.99, 50.00, v));
+        insert("p003", v -> new Product("p003", "Thing C", "Another User1 product", "user1", 5.00, 2.50, v));
     }
 
     public List<Product> findAll() {
-        return new ArrayList<>(productRepo.values());
+        try (CatalogSnapshot snapshot = snapshot()) {
+            return snapshot.toList();
+        }
+    }
+
+    /**
+     * Opens a consistent point-in-time view of the catalog. The caller must close it.
+     */
+    public CatalogSnapshot snapshot() {
+        return new CatalogSnapshot(partitions, clock, gatherExecutor);
     }
 
     public Optional<Product> findById(String id) {
-        return Optional.ofNullable(productRepo.get(id));
+        return Optional.ofNullable(ring.route(id).get(id));
     }
 
     public Product save(ProductCreateDTO createDto, String currentUserId) {
-        String newId = "p" + idCounter.incrementAndGet();
+        String newId = idGenerator.next();
 
         // API3: Map DTO to internal Model, preventing unauthorized field setting
-        Product newProduct = new Product(
+        return insert(newId, version -> new Product(
                 newId,
                 createDto.getName(),
                 createDto.getDescription(),
                 currentUserId, // OwnerId is set by the system based on the authenticated user
                 createDto.getRetailPrice(),
-                createDto.getRetailPrice() * 0.5 // Internal cost logic
-        );
-        productRepo.put(newId, newProduct);
-        return newProduct;
+                createDto.getRetailPrice() * 0.5, // Internal cost logic
+                version
+        ));
     }
 
-    public Product update(String id, ProductCreateDTO updateDto) {
-        Product product = productRepo.get(id);
-        if (product != null) {
-            // Update the fields allowed by the DTO.
-            product.setName(updateDto.getName());
-            product.setDescription(updateDto.getDescription());
-            product.setRetailPrice(updateDto.getRetailPrice());
+    /**
+     * Inserts a batch of validated products for the same owner, e.g. from a bulk import.
+     * @return The number of products inserted.
+     */
+    public int saveAll(List<ProductCreateDTO> createDtos, String currentUserId) {
+        for (ProductCreateDTO createDto : createDtos) {
+            save(createDto, currentUserId);
         }
-        return product;
+        return createDtos.size();
+    }
+
+    public Product update(String id, ProductCreateDTO updateDto) {
+        // Copy-on-write: only the fields allowed by the DTO change, readers keep the old instance
+        return ring.route(id).update(id, (current, version) -> current.withDetails(
+                updateDto.getName(),
+                updateDto.getDescription(),
+                updateDto.getRetailPrice(),
+                version));
     }
 
     public boolean delete(String id) {
-        return productRepo.remove(id) != null;
+        return ring.route(id).remove(id);
+    }
+
+    private Product insert(String id, LongFunction<Product> factory) {
+        return ring.route(id).insert(id, factory);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (gatherExecutor != null) {
+            gatherExecutor.shutdown();
+        }
     }
 }
@@ -0,0 +1,29 @@
+package com.example.secure.product;
+
+import com.example.secure.global.PhaseTimeline;
+import com.example.secure.global.RequestPhase;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Marks the ProductService phase for sampled requests. Only proxies the service when
+ * profiling is enabled, so there is no overhead otherwise.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "app.profiling.enabled", havingValue = "true")
+public class ProductServiceProfiling {
+
+    @Around("execution(public * com.example.secure.product.ProductService.*(..))")
+    public Object markServicePhase(ProceedingJoinPoint joinPoint) throws Throwable {
+        PhaseTimeline.enterService();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            PhaseTimeline.mark(RequestPhase.SERVICE);
+        }
+    }
+}
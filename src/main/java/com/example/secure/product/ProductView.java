@@ -0,0 +1,53 @@
+package com.example.secure.product;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Output view of a product restricted to a {@link ProductFieldSet} (sparse fieldsets).
+ * Writes the selected fields straight from the {@link Product} instead of building a
+ * {@link ProductResponseDTO} first; works for every Jackson format (JSON, CBOR, Smile).
+ */
+@JsonSerialize(using = ProductView.Serializer.class)
+public final class ProductView {
+    private final Product product;
+    private final ProductFieldSet fields;
+
+    ProductView(Product product, ProductFieldSet fields) {
+        this.product = product;
+        this.fields = fields;
+    }
+
+    static void write(Product product, ProductFieldSet fields, JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        if (fields.includes(ProductFieldSet.ID)) {
+            gen.writeStringField("id", product.getId());
+        }
+        if (fields.includes(ProductFieldSet.NAME)) {
+            gen.writeStringField("name", product.getName());
+        }
+        if (fields.includes(ProductFieldSet.DESCRIPTION)) {
+            gen.writeStringField("description", product.getDescription());
+        }
+        if (fields.includes(ProductFieldSet.RETAIL_PRICE)) {
+            gen.writeNumberField("retailPrice", product.getRetailPrice());
+        }
+        gen.writeEndObject();
+    }
+
+    public static class Serializer extends StdSerializer<ProductView> {
+
+        public Serializer() {
+            super(ProductView.class);
+        }
+
+        @Override
+        public void serialize(ProductView view, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            write(view.product, view.fields, gen);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.secure.product;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes the circuit breaker state and recent upstream events at /actuator/upstream.
+ */
+@Component
+@Endpoint(id = "upstream")
+public class UpstreamEndpoint {
+
+    private static final int RECENT_EVENTS = 100;
+
+    private final ExternalApiService externalApiService;
+    private final UpstreamEventLog eventLog;
+
+    public UpstreamEndpoint(ExternalApiService externalApiService, UpstreamEventLog eventLog) {
+        this.externalApiService = externalApiService;
+        this.eventLog = eventLog;
+    }
+
+    @ReadOperation
+    public Map<String, Object> upstream() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("circuitOpen", externalApiService.isCircuitTripped());
+        state.put("failureCount", externalApiService.getFailureCount());
+        state.put("blockedRequests", externalApiService.getBlockedRequests());
+        state.put("events", eventLog.recent(RECENT_EVENTS));
+        return state;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.secure.product;
+
+/**
+ * Circuit breaker transition or upstream failure recorded by {@link UpstreamEventLog}.
+ */
+public record UpstreamEvent(long sequence, long timestampMillis, Type type, String detail) {
+
+    public enum Type {
+        CIRCUIT_OPENED,
+        CIRCUIT_HALF_OPEN,
+        CIRCUIT_CLOSED,
+        CALL_FAILED,
+        VALIDATION_FAILED
+    }
+}
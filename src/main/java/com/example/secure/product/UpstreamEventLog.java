@@ -0,0 +1,137 @@
+package com.example.secure.product;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size, lock-free ring buffer of upstream events (API10).
+ * Request threads only claim a sequence number and publish into a slot; a single background
+ * thread drains the buffer to the logging framework, so the request path never waits on I/O.
+ * When writers lap the drainer the oldest events are overwritten and reported as dropped; a slot
+ * that is still not published after a full drain interval is skipped and reported as lost.
+ */
+@Component
+public class UpstreamEventLog {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamEventLog.class);
+
+    // Must be a power of two so the slot index is a mask of the sequence
+    private static final int CAPACITY = 1024;
+    private static final int MASK = CAPACITY - 1;
+    private static final long DRAIN_INTERVAL_MILLIS = 500;
+
+    private final AtomicReferenceArray<UpstreamEvent> slots = new AtomicReferenceArray<>(CAPACITY);
+    // Next sequence number to be claimed by a writer
+    private final AtomicLong head = new AtomicLong();
+    // Next sequence number to be logged, only touched by the drain thread
+    private long drained;
+    // Sequence found unpublished on the previous run, skipped if it is still missing on this one
+    private long stalled = -1;
+    private final ScheduledExecutorService drainer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "upstream-event-drain");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        drainer.scheduleWithFixedDelay(this::drain,
+                DRAIN_INTERVAL_MILLIS, DRAIN_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records an event without blocking.
+     * @param type The kind of event.
+     * @param detail Free-form detail, e.g. the exception message.
+     */
+    public void record(UpstreamEvent.Type type, String detail) {
+        long sequence = claimSequence();
+        slots.set((int) (sequence & MASK), new UpstreamEvent(sequence, System.currentTimeMillis(), type, detail));
+    }
+
+    /**
+     * Returns the most recent events, newest first.
+     * @param limit Maximum number of events to return.
+     */
+    public List<UpstreamEvent> recent(int limit) {
+        long end = head.get();
+        long start = Math.max(0, end - Math.min(limit, CAPACITY));
+        List<UpstreamEvent> events = new ArrayList<>();
+        for (long sequence = end - 1; sequence >= start; sequence--) {
+            UpstreamEvent event = slots.get((int) (sequence & MASK));
+            // Skip slots that are claimed but not yet published, or already overwritten
+            if (event != null && event.sequence() == sequence) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    long claimSequence() {
+        return head.getAndIncrement();
+    }
+
+    void drain() {
+        long end = head.get();
+        if (end - drained > CAPACITY) {
+            long lost = end - CAPACITY - drained;
+            log.warn("Upstream event log overflow: {} events dropped", lost);
+            drained = end - CAPACITY;
+        }
+        while (drained < end) {
+            UpstreamEvent event = slots.get((int) (drained & MASK));
+            if (event == null || event.sequence() < drained) {
+                if (stalled != drained) {
+                    // Claimed but not yet published, give the writer until the next run
+                    stalled = drained;
+                    return;
+                }
+                // Still missing: the writer died, or a slower writer overwrote the slot with an
+                // older event. Skip it rather than stall every event behind it
+                log.warn("Upstream event log: event {} lost", drained);
+                drained++;
+                continue;
+            }
+            if (event.sequence() == drained) {
+                write(event);
+            }
+            // A newer sequence means the slot was overwritten before we got to it
+            drained++;
+        }
+    }
+
+    long drainedSequence() {
+        return drained;
+    }
+
+    private static void write(UpstreamEvent event) {
+        switch (event.type()) {
+            case CIRCUIT_OPENED, CALL_FAILED, VALIDATION_FAILED ->
+                    log.warn("{}: {}", event.type(), event.detail());
+            default -> log.info("{}: {}", event.type(), event.detail());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        drainer.shutdown();
+        try {
+            drainer.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Flush whatever is left
+        drain();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.secure.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Function-level authorization (API5) of the actuator endpoints: only health is open to every
+ * authenticated user, everything else requires ROLE_ADMIN.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ActuatorSecurityTest {
+
+    private final String user1 = "user1";
+    private final String pass1 = "password";
+    private final String admin = "admin";
+    private final String passAdmin = "adminpass";
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void userShouldReachHealth() throws Exception {
+        mockMvc.perform(get("/actuator/health")
+                        .with(httpBasic(user1, pass1)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void userShouldBeForbiddenToReloadHostAllowList() throws Exception {
+        // API7: the SSRF allow-list can only be reloaded by an admin
+        mockMvc.perform(post("/actuator/allowedhosts")
+                        .with(httpBasic(user1, pass1)))
+                .andExpect(status().isForbidden()); // API5 Check (Failure)
+        mockMvc.perform(post("/actuator/allowedhosts")
+                        .with(httpBasic(admin, passAdmin)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void userShouldBeForbiddenToResetOrInspectRateLimits() throws Exception {
+        mockMvc.perform(delete("/actuator/ratelimits")
+                        .with(httpBasic(user1, pass1)))
+                .andExpect(status().isForbidden()); // API5 Check (Failure)
+        mockMvc.perform(get("/actuator/ratelimits/admin")
+                        .with(httpBasic(user1, pass1)))
+                .andExpect(status().isForbidden()); // API5 Check (Failure)
+    }
+
+    @Test
+    void userShouldBeForbiddenToReadInternalEndpoints() throws Exception {
+        for (String endpoint : new String[]{"concurrency", "upstream", "phases", "ratelimits"}) {
+            mockMvc.perform(get("/actuator/" + endpoint)
+                            .with(httpBasic(user1, pass1)))
+                    .andExpect(status().isForbidden()); // API5 Check (Failure)
+        }
+    }
+
+    @Test
+    void adminShouldBeAllowedToUseRateLimitEndpoint() throws Exception {
+        mockMvc.perform(get("/actuator/ratelimits/user1")
+                        .with(httpBasic(admin, passAdmin)))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/actuator/ratelimits")
+                        .with(httpBasic(admin, passAdmin)))
+                .andExpect(status().isNoContent());
+    }
+}
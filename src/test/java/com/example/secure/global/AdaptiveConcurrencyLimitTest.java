@@ -0,0 +1,113 @@
+package com.example.secure.global;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private static void window(AdaptiveConcurrencyLimit limit, long latencyNanos) {
+        for (int i = 0; i < AdaptiveConcurrencyLimit.WINDOW_SAMPLES; i++) {
+            limit.tryAcquire();
+            limit.release(latencyNanos, false);
+        }
+    }
+
+    // Keeps the limit saturated (no queueing: latency does not depend on concurrency)
+    private static void saturate(AdaptiveConcurrencyLimit limit, int samples, LongSupplier latency) {
+        for (int i = 0; i < samples; i++) {
+            while (limit.tryAcquire()) {
+                // Fill every free slot
+            }
+            limit.release(latency.getAsLong(), false);
+        }
+    }
+
+    @Test
+    void shouldShedRequestsAboveTheLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, 0.5, 2.0, 1000 * MILLIS);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        // The third concurrent request exceeds the limit and is shed
+        assertFalse(limit.tryAcquire());
+
+        assertEquals(2, limit.getInFlight());
+        assertEquals(1, limit.getShedCount());
+    }
+
+    @Test
+    void shouldBackOffOncePerWindowWhenLatencyClimbs() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 1, 10, 0.5, 2.0, 1000 * MILLIS);
+
+        // Establish a 10ms baseline
+        window(limit, 10 * MILLIS);
+        int established = limit.getLimit();
+
+        // A window of 100ms requests indicates queueing: the limit is halved once, not per request
+        window(limit, 100 * MILLIS);
+        assertEquals(established / 2, limit.getLimit());
+
+        // Server errors back off per request, down to the configured minimum
+        for (int i = 0; i < 10; i++) {
+            limit.tryAcquire();
+            limit.release(10 * MILLIS, true);
+        }
+        assertEquals(1, limit.getLimit());
+    }
+
+    @Test
+    void shouldBackOffOnRequestsOverTheLatencyCeiling() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 1, 10, 0.5, 2.0, 1000 * MILLIS);
+
+        limit.tryAcquire();
+        limit.release(2000 * MILLIS, false);
+
+        assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    void shouldGrowWhileLatencyIsStableAndTheLimitIsUsed() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, 0.5, 2.0, 1000 * MILLIS);
+
+        saturate(limit, 4 * AdaptiveConcurrencyLimit.WINDOW_SAMPLES, () -> 10 * MILLIS);
+
+        assertTrue(limit.getLimit() > 2);
+    }
+
+    @Test
+    void noisyLatencyWithoutQueueingShouldNotShrinkTheLimit() {
+        Random random = new Random(42);
+        AdaptiveConcurrencyLimit exponential = new AdaptiveConcurrencyLimit(20, 4, 200, 0.9, 2.0, 5000 * MILLIS);
+        // Exponentially distributed service times, 10ms on average
+        saturate(exponential, 20_000, () -> (long) (-Math.log(1 - random.nextDouble()) * 10 * MILLIS));
+        assertTrue(exponential.getLimit() >= 20, "limit " + exponential.getLimit());
+
+        AdaptiveConcurrencyLimit mixed = new AdaptiveConcurrencyLimit(20, 4, 200, 0.9, 2.0, 5000 * MILLIS);
+        // Mostly cheap requests (rejected before BCrypt) with authenticated ones in between
+        saturate(mixed, 20_000, () -> random.nextDouble() < 0.8 ? MILLIS : 80 * MILLIS);
+        assertTrue(mixed.getLimit() >= 20, "limit " + mixed.getLimit());
+    }
+
+    @Test
+    void streamingReleaseShouldNotAffectLimitOrBaseline() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 1, 10, 0.5, 2.0, 1000 * MILLIS);
+        window(limit, 10 * MILLIS);
+        int established = limit.getLimit();
+
+        // A long-running stream frees its slot without a (minutes long) latency sample
+        limit.tryAcquire();
+        limit.releaseWithoutSample();
+
+        assertEquals(established, limit.getLimit());
+        assertEquals(10.0, limit.getBaselineLatencyMillis(), 0.001);
+        assertEquals(0, limit.getInFlight());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.secure.global;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConcurrencyLimitFilterTest {
+
+    @Test
+    void exceptionsFromTheChainShouldCountAsFailures() {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(true, 8, 1, 10, 0.5, 2.0, Duration.ofSeconds(5));
+
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(
+                new MockHttpServletRequest("GET", "/api/v1/products"), new MockHttpServletResponse(),
+                (req, res) -> {
+                    throw new IllegalStateException("boom");
+                }));
+
+        // The status was still 200 when the chain threw, the limit must back off anyway
+        assertEquals(4, filter.getLimit());
+        assertEquals(0, filter.getInFlight());
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.secure.global;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeavyHitterTrackerTest {
+
+    @Test
+    void shouldFindHeavyHittersInASkewedStream() {
+        HeavyHitterTracker tracker = new HeavyHitterTracker(1024, 3);
+
+        // Three abusive users hidden among many light users
+        for (int i = 0; i < 5000; i++) {
+            tracker.add("user-" + (i % 1000));
+            if (i % 2 == 0) {
+                tracker.add("abuser-1");
+            }
+            if (i % 4 == 0) {
+                tracker.add("abuser-2");
+            }
+            if (i % 8 == 0) {
+                tracker.add("abuser-3");
+            }
+        }
+
+        Map<String, Long> top = tracker.top(3);
+
+        assertEquals(List.of("abuser-1", "abuser-2", "abuser-3"), List.copyOf(top.keySet()));
+        // Count-Min estimates never undercount
+        assertTrue(top.get("abuser-1") >= 2500);
+    }
+
+    @Test
+    void resetShouldStartANewWindow() {
+        HeavyHitterTracker tracker = new HeavyHitterTracker(64, 2);
+        tracker.add("user1");
+        tracker.reset();
+
+        assertTrue(tracker.top(10).isEmpty());
+        assertEquals(1, tracker.add("user1"));
+    }
+}
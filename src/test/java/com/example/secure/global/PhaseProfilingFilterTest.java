@@ -0,0 +1,63 @@
+package com.example.secure.global;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PhaseProfilingFilterTest {
+
+    private static PhaseProfilingFilter filter(MeterRegistry registry, double sampleRate) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("registry", registry);
+        return new PhaseProfilingFilter(true, sampleRate, beans.getBeanProvider(MeterRegistry.class));
+    }
+
+    @Test
+    void shouldRecordEachPhasePerEndpoint() throws Exception {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        PhaseProfilingFilter filter = filter(registry, 1.0);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/p001");
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            PhaseTimeline.mark(RequestPhase.AUTHENTICATION);
+            PhaseTimeline.mark(RequestPhase.RATE_LIMIT);
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/products/{id}");
+            PhaseTimeline.enterService();
+            PhaseTimeline.mark(RequestPhase.SERVICE);
+            PhaseTimeline.startBody();
+        });
+
+        Map<String, Map<String, Object>> phases = filter.report().get("GET /api/v1/products/{id}");
+        assertNotNull(phases);
+        for (String phase : new String[]{"authentication", "rate-limit", "authorization", "service",
+                "controller", "serialization", "total"}) {
+            assertEquals(1L, phases.get(phase).get("count"), phase);
+            assertTrue(phases.get(phase).containsKey("p99Millis"), phase);
+        }
+        // The remainder goes to serialization once the body write has started
+        assertNull(phases.get("other"));
+        assertEquals(7, registry.find(PhaseProfilingFilter.METRIC).timers().stream()
+                .filter(timer -> timer.count() > 0).count());
+    }
+
+    @Test
+    void shouldSkipUnsampledRequests() throws Exception {
+        PhaseProfilingFilter filter = filter(new SimpleMeterRegistry(), 0.0);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/products"), new MockHttpServletResponse(),
+                (req, res) -> PhaseTimeline.mark(RequestPhase.AUTHENTICATION));
+
+        assertTrue(filter.report().isEmpty());
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.secure.global;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitingServiceTest {
+
+    @Test
+    void shouldEvictBucketsThatWouldBeFullAgain() throws InterruptedException {
+        RateLimitingService service = new RateLimitingService();
+        // Many one-off anonymous clients on a short refill period, one active user on a long one
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(service.tryConsume("anonymous:10.0.0." + i, "read", 5, Duration.ofSeconds(1), 1));
+        }
+        for (int i = 0; i < 5; i++) {
+            assertTrue(service.tryConsume("user1", "read", 5, Duration.ofSeconds(60), 1));
+        }
+        assertEquals(1001, service.trackedClients());
+
+        Thread.sleep(1100);
+        service.evictIdleBuckets();
+
+        // Only the user whose bucket is still draining is kept, and it is still empty
+        assertEquals(1, service.trackedClients());
+        assertFalse(service.tryConsume("user1", "read", 5, Duration.ofSeconds(60), 1));
+        // An evicted client simply starts over with a full bucket
+        assertTrue(service.tryConsume("anonymous:10.0.0.1", "read", 5, Duration.ofSeconds(1), 1));
+    }
+
+    @Test
+    void evictedBucketShouldBeReplacedOnNextUse() throws InterruptedException {
+        RateLimitingService service = new RateLimitingService();
+        assertTrue(service.tryConsume("user1", "write", 1, Duration.ofSeconds(1), 1));
+        assertFalse(service.tryConsume("user1", "write", 1, Duration.ofSeconds(1), 1));
+
+        Thread.sleep(1100);
+        service.evictIdleBuckets();
+
+        assertTrue(service.tryConsume("user1", "write", 1, Duration.ofSeconds(1), 1));
+        assertEquals(0, (int) service.bucketState("user1").get("write").get("tokens"));
+    }
+}
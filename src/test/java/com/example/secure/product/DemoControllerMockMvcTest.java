@@ -14,7 +14,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(DemoController.class)
-@Import({SecurityConfig.class, ProductService.class, RateLimitingService.class, ExternalApiService.class}) // Import UrlSecurityService
+@Import({SecurityConfig.class, ProductService.class, RateLimitingService.class, ExternalApiService.class,
+        UpstreamEventLog.class, HostAllowList.class}) // Import UrlSecurityService
 class DemoControllerMockMvcTest {
 
     // --- Test Data ---
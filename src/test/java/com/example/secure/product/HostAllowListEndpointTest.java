@@ -0,0 +1,38 @@
+package com.example.secure.product;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HostAllowListEndpointTest {
+
+    @Test
+    void shouldReloadHostsFileAndKeepCurrentListOnError(@TempDir Path dir) throws IOException {
+        Path file = Files.writeString(dir.resolve("hosts.txt"), "# partners\n*.partner.com\n");
+        HostAllowList allowList = new HostAllowList(new String[]{"jsonplaceholder.typicode.com"}, file.toString());
+        HostAllowListEndpoint endpoint = new HostAllowListEndpoint(allowList);
+        assertFalse(allowList.isAllowed("api.other.com"));
+
+        Files.writeString(file, "*.partner.com\napi.other.com\n");
+        WebEndpointResponse<Map<String, Object>> reloaded = endpoint.reload();
+        assertEquals(200, reloaded.getStatus());
+        assertEquals(2, reloaded.getBody().get("exactHosts"));
+        assertTrue(allowList.isAllowed("api.other.com"));
+
+        Files.writeString(file, "https://broken.example\n");
+        WebEndpointResponse<Map<String, Object>> failed = endpoint.reload();
+        assertEquals(400, failed.getStatus());
+        assertTrue(failed.getBody().containsKey("error"));
+        // The previous list is still in force
+        assertTrue(allowList.isAllowed("api.other.com"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.secure.product;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HostMatcherTest {
+
+    @Test
+    void shouldMatchExactHostsAndWildcardSubdomains() {
+        HostMatcher matcher = HostMatcher.compile(List.of(
+                "jsonplaceholder.typicode.com", "*.Partner.com", "# comment", " "));
+
+        assertTrue(matcher.matches("jsonplaceholder.typicode.com"));
+        assertTrue(matcher.matches("JSONPlaceholder.Typicode.COM"));
+        assertTrue(matcher.matches("api.partner.com"));
+        assertTrue(matcher.matches("eu.api.partner.com"));
+
+        // A wildcard covers subdomains only, and suffixes must end on a label boundary
+        assertFalse(matcher.matches("partner.com"));
+        assertFalse(matcher.matches("evilpartner.com"));
+        assertFalse(matcher.matches(".partner.com"));
+        assertFalse(matcher.matches("typicode.com"));
+        assertFalse(matcher.matches("jsonplaceholder.typicode.com.evil.com"));
+        assertFalse(matcher.matches(""));
+
+        assertEquals(1, matcher.exactCount());
+        assertEquals(1, matcher.wildcardCount());
+    }
+
+    @Test
+    void shouldHandleThousandsOfPartnerHosts() {
+        List<String> entries = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            entries.add("api" + i + ".partners.example");
+            entries.add("*.tenant" + i + ".example");
+        }
+        HostMatcher matcher = HostMatcher.compile(entries);
+
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(matcher.matches("api" + i + ".partners.example"));
+            assertTrue(matcher.matches("shop.tenant" + i + ".example"));
+        }
+        assertFalse(matcher.matches("api5000.partners.example"));
+        assertFalse(matcher.matches("shop.tenant5000.example"));
+    }
+
+    @Test
+    void shouldRejectMalformedEntries() {
+        assertThrows(IllegalArgumentException.class, () -> HostMatcher.compile(List.of("*")));
+        assertThrows(IllegalArgumentException.class, () -> HostMatcher.compile(List.of("api.*.com")));
+        assertThrows(IllegalArgumentException.class, () -> HostMatcher.compile(List.of("https://partner.com")));
+    }
+}
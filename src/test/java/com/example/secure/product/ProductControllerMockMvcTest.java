@@ -3,13 +3,20 @@ package com.example.secure.product;
 import com.example.secure.config.SecurityConfig;
 import com.example.secure.global.RateLimitingService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -23,7 +30,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * It uses Spring's MockMvc for simulating HTTP requests.
  */
 @WebMvcTest(ProductController.class)
-@Import({SecurityConfig.class, ProductService.class, RateLimitingService.class}) // Import the new RateLimitingService
+@Import({SecurityConfig.class, ProductService.class, RateLimitingService.class, // Import the new RateLimitingService
+        ProductImporter.class, ProductExporter.class})
 public class ProductControllerMockMvcTest {
 
     // --- Test Data ---
@@ -87,6 +95,73 @@ public class ProductControllerMockMvcTest {
                 .andExpect(jsonPath("$.id").value(productOwnedByUser1));
     }
 
+    @Test
+    void userShouldBeAllowedToStreamCatalogExport() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/v1/products/export")
+                        .with(httpBasic(user1, pass1)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString().split("\n");
+
+        // One JSON object per line with the public fields only (API3)
+        assertTrue(lines.length >= 2);
+        for (String line : lines) {
+            assertTrue(objectMapper.readTree(line).has("id"), line);
+            assertTrue(objectMapper.readTree(line).has("retailPrice"), line);
+            assertFalse(objectMapper.readTree(line).has("costPrice"), line);
+        }
+    }
+
+    @Test
+    void userShouldReceiveCborWhenRequested() throws Exception {
+        // Binary encoding negotiated through the Accept header
+        byte[] body = mockMvc.perform(get("/api/v1/products/" + productOwnedByUser1)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .with(httpBasic(user1, pass1)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(productOwnedByUser1, new CBORMapper().readTree(body).get("id").asText());
+    }
+
+    @Test
+    void userShouldReceiveSmileWhenRequested() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/v1/products/" + productOwnedByUser1)
+                        .accept(ProductController.APPLICATION_SMILE_VALUE)
+                        .with(httpBasic(user1, pass1)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ProductController.APPLICATION_SMILE_VALUE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(productOwnedByUser1, new SmileMapper().readTree(body).get("id").asText());
+    }
+
+    @Test
+    void userShouldReceiveOnlyRequestedFields() throws Exception {
+        // Sparse fieldset: description and retailPrice are not written
+        mockMvc.perform(get("/api/v1/products/" + productOwnedByUser1)
+                        .param("fields", "id,name")
+                        .with(httpBasic(user1, pass1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(productOwnedByUser1))
+                .andExpect(jsonPath("$.name").exists())
+                .andExpect(jsonPath("$.description").doesNotExist())
+                .andExpect(jsonPath("$.retailPrice").doesNotExist());
+    }
+
+    @Test
+    void userShouldNotBeAbleToSelectInternalFields() throws Exception {
+        // API3: costPrice is not a public field, selecting it is rejected
+        mockMvc.perform(get("/api/v1/products/" + productOwnedByUser1)
+                        .param("fields", "id,costPrice")
+                        .with(httpBasic(user1, pass1)))
+                .andExpect(status().isBadRequest());
+    }
 
     // ===============================================================
     // API5: Broken Function Level Authorization (BFLA) Tests
@@ -119,6 +194,37 @@ public class ProductControllerMockMvcTest {
                 .andExpect(jsonPath("$.name").value(validCreateDto.getName()));
     }
 
+    @Test
+    void userShouldBeForbiddenToImport() throws Exception {
+        // user1 (ROLE_USER) attempts a bulk import (requires ROLE_ADMIN)
+        mockMvc.perform(post("/api/v1/products/import")
+                        .with(httpBasic(user1, pass1))
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"Imported\",\"retailPrice\":1.0}\n"))
+                .andExpect(status().isForbidden()); // API5 Check (Failure)
+    }
+
+    @Test
+    void adminShouldImportProductsWithStreamedProgress() throws Exception {
+        // The second line fails the ProductCreateDTO rules (API8) and is reported, the others are imported
+        String body = "{\"name\":\"Imported One\",\"description\":\"bulk\",\"retailPrice\":1.5}\n"
+                + "{\"name\":\"S\",\"retailPrice\":2.0}\n"
+                + "{\"name\":\"Imported Two\",\"retailPrice\":3.0}\n";
+        MvcResult started = mockMvc.perform(post("/api/v1/products/import")
+                        .with(httpBasic(admin, passAdmin))
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String events = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(events.contains("{\"type\":\"error\",\"line\":2,"), events);
+        assertTrue(events.endsWith("{\"type\":\"summary\",\"lines\":3,\"imported\":2,\"rejected\":1}\n"), events);
+    }
 
     // ===============================================================
     // API1: Broken Object Level Authorization (BOLA) Tests
@@ -177,6 +283,55 @@ public class ProductControllerMockMvcTest {
                 .andExpect(status().isTooManyRequests()); // API4 Check (Failure)
     }
 
+    @Test
+    void anonymousClientsShouldHaveSeparateReadAndWriteBudgets() throws Exception {
+        // Unauthenticated reads are charged to the anonymous client's "read" budget (5 tokens)
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/api/v1/products"))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        // The filter rejects the 6th read before it reaches authorization
+        mockMvc.perform(get("/api/v1/products"))
+                .andExpect(status().isTooManyRequests()) // API4 Check (Failure)
+                .andExpect(header().string("Retry-After", "60"));
+
+        // Writes are charged to the separate "write" budget and still get through to authorization
+        mockMvc.perform(post("/api/v1/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validCreateDto)))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void heavyHittersShouldCountEndpointsByPatternNotByRawPath() throws Exception {
+        for (String id : new String[]{productOwnedByUser1, "p003", "p404"}) {
+            mockMvc.perform(get("/api/v1/products/" + id)
+                    .with(httpBasic(user1, pass1)));
+        }
+
+        // One key per handler pattern, the ids do not flood the top-K
+        assertTrue(rateLimitingService.topEndpoints(50).containsKey("GET /api/v1/products/{id}"));
+        assertTrue(rateLimitingService.topEndpoints(50).keySet().stream().noneMatch(k -> k.contains("p003")));
+    }
+
+    @Test
+    void unlistedEndpointsShouldBeLimitedByTheCatchAllPolicy() throws Exception {
+        // GET /api/v1/products/{id} has no policy of its own, it falls through to the "default" bucket (60 tokens)
+        RequestPostProcessor client = request -> {
+            request.setRemoteAddr("10.0.0.60");
+            return request;
+        };
+        for (int i = 0; i < 60; i++) {
+            mockMvc.perform(get("/api/v1/products/" + productOwnedByUser1).with(client))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        mockMvc.perform(get("/api/v1/products/" + productOwnedByUser1).with(client))
+                .andExpect(status().isTooManyRequests()) // API4 Check (Failure)
+                .andExpect(header().string("Retry-After", "60"));
+    }
+
     // ===============================================================
     // API8: Injection/Input Validation Test
     // ===============================================================
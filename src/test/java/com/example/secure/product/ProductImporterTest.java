@@ -0,0 +1,110 @@
+package com.example.secure.product;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductImporterTest {
+
+    private ProductService productService;
+    private ProductImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        productService = new ProductService(new CatalogClock(), 4, 0);
+        importer = new ProductImporter(productService, new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), DataSize.ofKilobytes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        importer.shutdown();
+        productService.shutdown();
+    }
+
+    @Test
+    void shouldImportCsvSpanningSeveralChunks(@TempDir Path dir) throws IOException {
+        // Over 1 MB, so the file is mapped and parsed as several chunks cut at line boundaries
+        Path file = dir.resolve("products.csv");
+        int rows = 40_000;
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            writer.write("retailPrice,name,description\n");
+            for (int i = 0; i < rows; i++) {
+                if (i == 12_345) {
+                    writer.write("1.0,X,too short\n");
+                } else {
+                    writer.write(i + ".5,\"Product " + i + "\",\"Quoted, with \"\"commas\"\"\"\r\n");
+                }
+            }
+        }
+
+        List<Map<String, Object>> events = new ArrayList<>();
+        importer.importFile(file, ProductImporter.Format.CSV, "admin", events::add);
+
+        Map<String, Object> summary = events.get(events.size() - 1);
+        assertEquals("summary", summary.get("type"));
+        assertEquals((long) rows + 1, summary.get("lines"));
+        assertEquals((long) rows - 1, summary.get("imported"));
+        assertEquals(1L, summary.get("rejected"));
+        // Line numbers count the header
+        assertTrue(events.stream().anyMatch(e -> "error".equals(e.get("type")) && e.get("line").equals(12_347L)));
+        assertTrue(events.stream().filter(e -> "progress".equals(e.get("type"))).count() > 1);
+
+        assertEquals(rows - 1 + 3, productService.findAll().size());
+        Product last = productService.findById("p" + (rows - 1 + 3)).orElseThrow();
+        assertEquals("Product " + (rows - 1), last.getName());
+        assertEquals("Quoted, with \"commas\"", last.getDescription());
+        assertEquals("admin", last.getOwnerId());
+    }
+
+    @Test
+    void shouldRejectShortRowsUnderAWiderHeader(@TempDir Path dir) throws IOException {
+        // retailPrice is the 4th column, the second row stops after the 3rd
+        Path file = Files.writeString(dir.resolve("products.csv"),
+                "sku,name,description,retailPrice\nA1,Widget,desc,1.5\nA2,Thing,desc\nA3,Gizmo,desc,2.5\n");
+
+        List<Map<String, Object>> events = new ArrayList<>();
+        importer.importFile(file, ProductImporter.Format.CSV, "admin", events::add);
+
+        assertTrue(events.stream().anyMatch(e -> "error".equals(e.get("type")) && e.get("line").equals(3L)));
+        Map<String, Object> summary = events.get(events.size() - 1);
+        assertEquals("summary", summary.get("type"));
+        assertEquals(2L, summary.get("imported"));
+        assertEquals(1L, summary.get("rejected"));
+    }
+
+    @Test
+    void shouldRejectCsvWithoutRequiredColumns(@TempDir Path dir) throws IOException {
+        Path file = Files.writeString(dir.resolve("products.csv"), "name,price\nWidget,1.0\n");
+
+        List<Map<String, Object>> events = new ArrayList<>();
+        importer.importFile(file, ProductImporter.Format.CSV, "admin", events::add);
+
+        assertEquals("error", events.get(0).get("type"));
+        assertEquals(0L, events.get(1).get("imported"));
+    }
+
+    @Test
+    void shouldRefuseUploadsAboveTheMaximumSize() throws IOException {
+        assertTrue(importer.spool(new ByteArrayInputStream(new byte[2048])).isEmpty());
+        Path small = importer.spool(new ByteArrayInputStream(new byte[512])).orElseThrow();
+        assertEquals(512, Files.size(small));
+        Files.delete(small);
+    }
+}
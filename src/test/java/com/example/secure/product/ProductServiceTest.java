@@ -0,0 +1,188 @@
+package com.example.secure.product;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Partitioned mode: several in-memory partitions inside one JVM stand in for separate nodes.
+ */
+class ProductServiceTest {
+
+    private static List<ProductPartition> partitions(CatalogClock clock, int count) {
+        return IntStream.range(0, count).<ProductPartition>mapToObj(i -> new LocalProductPartition(clock)).toList();
+    }
+
+    private static ProductCreateDTO dto(String name) {
+        ProductCreateDTO dto = new ProductCreateDTO();
+        dto.setName(name);
+        dto.setDescription("Partition test");
+        dto.setRetailPrice(10.00);
+        return dto;
+    }
+
+    @Test
+    void shouldRouteAndGatherAcrossPartitions() {
+        CatalogClock clock = new CatalogClock();
+        List<ProductPartition> partitions = partitions(clock, 4);
+        ProductService service = new ProductService(clock, partitions, 0);
+
+        for (int i = 0; i < 1000; i++) {
+            Product saved = service.save(dto("Product " + i), "user1");
+            assertEquals(saved.getName(), service.findById(saved.getId()).orElseThrow().getName());
+        }
+
+        // Scatter/gather returns the initial data plus every saved product
+        assertEquals(1003, service.findAll().size());
+        // Every partition got a share of the catalog
+        partitions.forEach(partition -> assertTrue(partition.size() > 100));
+
+        assertTrue(service.delete("p002"));
+        assertTrue(service.findById("p002").isEmpty());
+        service.shutdown();
+    }
+
+    @Test
+    void idsShouldNotCollideAcrossNodes() {
+        ProductService node1 = new ProductService(new CatalogClock(), 2, 1);
+        ProductService node2 = new ProductService(new CatalogClock(), 2, 2);
+
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(ids.add(node1.save(dto("Node 1 product"), "user1").getId()));
+            assertTrue(ids.add(node2.save(dto("Node 2 product"), "user1").getId()));
+        }
+        node1.shutdown();
+        node2.shutdown();
+    }
+
+    @Test
+    void invalidPartitioningSettingsShouldBeRejected() {
+        IllegalArgumentException noPartitions = assertThrows(IllegalArgumentException.class,
+                () -> new ProductService(new CatalogClock(), 0, 0));
+        assertTrue(noPartitions.getMessage().contains("app.products.partitions"));
+
+        IllegalArgumentException negativeNode = assertThrows(IllegalArgumentException.class,
+                () -> new ProductService(new CatalogClock(), 2, -1));
+        assertTrue(negativeNode.getMessage().contains("app.products.node-id"));
+    }
+
+    @Test
+    void snapshotShouldNotSeeLaterWrites() {
+        CatalogClock clock = new CatalogClock();
+        List<ProductPartition> partitions = partitions(clock, 4);
+        ProductService service = new ProductService(clock, partitions, 0);
+        Product before = service.findById("p001").orElseThrow();
+
+        try (CatalogSnapshot snapshot = service.snapshot()) {
+            Product updated = service.update("p001", dto("Renamed"));
+            service.delete("p002");
+            service.save(dto("Created later"), "user1");
+
+            // Writers never touch the records a reader already holds
+            assertTrue(updated.getVersion() > before.getVersion());
+            assertEquals("Widget A", before.getName());
+
+            List<Product> seen = snapshot.toList();
+            assertEquals(3, seen.size());
+            assertTrue(seen.contains(before));
+            assertTrue(seen.stream().anyMatch(p -> p.getId().equals("p002")));
+        }
+
+        // The deleted product is purged once no snapshot needs it any more
+        assertEquals(3, partitions.stream().mapToInt(ProductPartition::size).sum());
+        List<Product> now = service.findAll();
+        assertEquals(3, now.size());
+        assertTrue(now.stream().anyMatch(p -> p.getName().equals("Renamed")));
+        service.shutdown();
+    }
+
+    @Test
+    void snapshotsShouldBeRepeatableAndConsistentUnderConcurrentWrites() throws Exception {
+        CatalogClock clock = new CatalogClock();
+        ProductService service = new ProductService(clock, partitions(clock, 4), 0);
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        // Writer: always prices p001 first, then p003, with the same value
+        Thread writer = new Thread(() -> {
+            for (int i = 1; running.get(); i++) {
+                ProductCreateDTO update = dto("Price " + i);
+                update.setRetailPrice(i);
+                service.update("p001", update);
+                service.update("p003", update);
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 500; i++) {
+                try (CatalogSnapshot snapshot = service.snapshot()) {
+                    List<Product> first = snapshot.toList();
+                    assertEquals(Set.copyOf(first), Set.copyOf(snapshot.toList()));
+                    double p001 = price(first, "p001");
+                    double p003 = price(first, "p003");
+                    // Writes are seen in order: never p003's update without p001's
+                    assertTrue(p001 == p003 || p001 == p003 + 1 || p003 == 5.00,
+                            "p001=" + p001 + " p003=" + p003);
+                }
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void closingTheLastSnapshotShouldTrimHistory() {
+        CatalogClock clock = new CatalogClock();
+        LocalProductPartition partition = new LocalProductPartition(clock);
+        ProductService service = new ProductService(clock, List.of(partition), 0);
+
+        // Without an open snapshot at most the latest record and its predecessor are kept
+        for (int i = 0; i < 100; i++) {
+            service.update("p001", dto("Renamed " + i));
+        }
+        assertTrue(partition.versions("p001") <= 2);
+
+        CatalogSnapshot snapshot = service.snapshot();
+        for (int i = 0; i < 100; i++) {
+            service.update("p001", dto("Renamed again " + i));
+        }
+        assertTrue(partition.versions("p001") > 100);
+        snapshot.close();
+
+        assertEquals(1, partition.versions("p001"));
+        service.shutdown();
+    }
+
+    private static double price(List<Product> products, String id) {
+        return products.stream().filter(p -> p.getId().equals(id)).findFirst().orElseThrow().getRetailPrice();
+    }
+
+    @Test
+    void addingAPartitionShouldOnlyMoveAFractionOfTheKeys() {
+        List<String> four = List.of("a", "b", "c", "d");
+        List<String> five = List.of("a", "b", "c", "d", "e");
+        ConsistentHashRing<String> before = new ConsistentHashRing<>(four, 128);
+        ConsistentHashRing<String> after = new ConsistentHashRing<>(five, 128);
+
+        int moved = 0;
+        for (int i = 0; i < 10_000; i++) {
+            String key = "p" + i;
+            if (!before.route(key).equals(after.route(key))) {
+                moved++;
+            }
+        }
+
+        // Roughly 1/5 of the keys move to the new partition, the rest stay where they were
+        assertTrue(moved > 1000 && moved < 3000, "moved " + moved);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.secure.product;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpstreamEndpointTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void blockedCallsShouldBeCountedWithoutFloodingTheEventLog() {
+        UpstreamEventLog eventLog = new UpstreamEventLog();
+        ExternalApiService service = new ExternalApiService(new ObjectMapper(), eventLog,
+                new HostAllowList(new String[]{"127.0.0.1"}, ""), false);
+        UpstreamEndpoint endpoint = new UpstreamEndpoint(service, eventLog);
+
+        // Nothing listens on port 1: three refused connections open the breaker
+        for (int i = 0; i < 3; i++) {
+            service.fetchAndValidateContent("http://127.0.0.1:1/todos/1");
+        }
+        for (int i = 0; i < 500; i++) {
+            assertTrue(service.fetchAndValidateContent("http://127.0.0.1:1/todos/1").isEmpty());
+        }
+
+        Map<String, Object> state = endpoint.upstream();
+        assertEquals(true, state.get("circuitOpen"));
+        assertEquals(500L, state.get("blockedRequests"));
+        // The transition is still visible, not pushed out by the blocked calls
+        List<UpstreamEvent> events = (List<UpstreamEvent>) state.get("events");
+        // Three failed calls and the transition, nothing for the blocked ones
+        assertEquals(4, events.size());
+        assertTrue(events.stream().anyMatch(event -> event.type() == UpstreamEvent.Type.CIRCUIT_OPENED));
+        eventLog.shutdown();
+    }
+}
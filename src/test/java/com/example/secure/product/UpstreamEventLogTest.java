@@ -0,0 +1,58 @@
+package com.example.secure.product;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UpstreamEventLogTest {
+
+    private final UpstreamEventLog eventLog = new UpstreamEventLog();
+
+    @AfterEach
+    void tearDown() {
+        eventLog.shutdown();
+    }
+
+    @Test
+    void shouldReturnRecentEventsNewestFirst() {
+        eventLog.record(UpstreamEvent.Type.CALL_FAILED, "timeout");
+        eventLog.record(UpstreamEvent.Type.CIRCUIT_OPENED, "open");
+
+        List<UpstreamEvent> events = eventLog.recent(10);
+
+        assertEquals(2, events.size());
+        assertEquals(UpstreamEvent.Type.CIRCUIT_OPENED, events.get(0).type());
+        assertEquals(UpstreamEvent.Type.CALL_FAILED, events.get(1).type());
+    }
+
+    @Test
+    void shouldKeepOnlyTheNewestEventsWhenTheBufferWraps() {
+        // Writers lap the ring: only the last 1024 events survive
+        for (int i = 0; i < 3000; i++) {
+            eventLog.record(UpstreamEvent.Type.CALL_FAILED, "failed " + i);
+        }
+        eventLog.drain();
+
+        List<UpstreamEvent> events = eventLog.recent(5000);
+
+        assertEquals(1024, events.size());
+        assertEquals("failed 2999", events.get(0).detail());
+        assertEquals(2999, events.get(0).sequence());
+    }
+
+    @Test
+    void shouldSkipASlotThatIsNeverPublished() {
+        eventLog.record(UpstreamEvent.Type.CALL_FAILED, "before");
+        eventLog.claimSequence(); // A writer that claimed a slot and never published it
+        eventLog.record(UpstreamEvent.Type.CALL_FAILED, "after");
+
+        // The first run waits for the slow writer, the next one skips the slot and moves on
+        eventLog.drain();
+        assertEquals(1, eventLog.drainedSequence());
+        eventLog.drain();
+        assertEquals(3, eventLog.drainedSequence());
+    }
+}